@@ -0,0 +1,74 @@
+import javax.swing.*;
+import javax.swing.border.MatteBorder;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+
+/**
+ * Cell renderer for the border designer grids.
+ * Fonts, colors and the 16 possible MatteBorders are shared, and borders are read
+ * straight from the BorderGrid, so painting a cell does not allocate.
+ */
+public class BorderCellRenderer extends DefaultTableCellRenderer {
+
+    private static final Font HEADER_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font CELL_FONT = new Font("Segoe UI", Font.PLAIN, 14);
+    private static final Color HEADER_BACKGROUND = new Color(220, 230, 240);
+    private static final Color HEADER_SELECTED_BACKGROUND = new Color(200, 220, 240);
+    private static final Color CELL_SELECTED_BACKGROUND = new Color(220, 235, 255);
+
+    private final BorderGrid _borders;
+    private final int _rowOffset;
+    private final boolean _headerCells;
+    private final MatteBorder[] _sideBorders = new MatteBorder[BorderGrid.SIDES + 1];
+    private long _renderCount;
+
+    /**
+     * @param borders     border store read on every paint
+     * @param rowOffset   grid row of table row 0
+     * @param borderColor color of the drawn borders
+     * @param headerCells style row 0 and column 0 as headers
+     */
+    public BorderCellRenderer(BorderGrid borders, int rowOffset, Color borderColor, boolean headerCells) {
+        _borders = borders;
+        _rowOffset = rowOffset;
+        _headerCells = headerCells;
+        for (int sides = 0; sides <= BorderGrid.SIDES; sides++) {
+            _sideBorders[sides] = BorderGrid.toBorder(sides, borderColor);
+        }
+        setHorizontalAlignment(CENTER);
+    }
+
+    /** Shared border for a combination of sides */
+    public MatteBorder getBorder(int sides) {
+        return _sideBorders[sides & BorderGrid.SIDES];
+    }
+
+    /** Cells rendered since creation or the last reset, to check how much of the table a change repaints */
+    public long getRenderCount() {
+        return _renderCount;
+    }
+
+    public void resetRenderCount() {
+        _renderCount = 0;
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                   boolean hasFocus, int row, int column) {
+        // The base implementation is skipped: it installs a focus border, colors and font that are all
+        // replaced below, and every border swap makes JComponent compare freshly allocated Insets.
+        _renderCount++;
+        setValue(value);
+
+        if (_headerCells && (row == 0 || column == 0)) {
+            setBackground(isSelected ? HEADER_SELECTED_BACKGROUND : HEADER_BACKGROUND);
+            setFont(HEADER_FONT);
+        } else {
+            setBackground(isSelected ? CELL_SELECTED_BACKGROUND : Color.WHITE);
+            setFont(CELL_FONT);
+        }
+        setForeground(Color.DARK_GRAY);
+        setBorder(_sideBorders[_borders.getSides(row + _rowOffset, column)]);
+        return this;
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Borders copied from a selection of the designer grid, to be pasted elsewhere.
+ * <p>
+ * The clip is the bounding block of the selection, one byte of raw BorderGrid flags per cell
+ * in row-major order. Copied cells carry SET; cells of the block that were not selected are 0
+ * and are skipped when pasting. A clip never changes once copied.
+ * <p>
+ * Selections are given as intervals, start/end pairs in ascending order, as read from a
+ * ListSelectionModel. As text a clip is a header line followed by one line per row,
+ * a hex digit of sides per copied cell and '.' per skipped one:
+ * <pre>
+ *   BORDERS 2x3
+ *   5.f
+ *   0a.
+ * </pre>
+ */
+public final class BorderClip {
+
+    private static final String HEADER = "BORDERS ";
+    private static final char SKIPPED = '.';
+    private static final String DIGITS = "0123456789abcdef";
+
+    private final int _rows;
+    private final int _cols;
+    private final byte[] _cells;
+    private final int _count;
+
+    private BorderClip(int rows, int cols, byte[] cells, int count) {
+        _rows = rows;
+        _cols = cols;
+        _cells = cells;
+        _count = count;
+    }
+
+    /** Copy the cells of a grid whose row and column are both in the given intervals */
+    public static BorderClip copy(BorderGrid grid, int[] rowRuns, int[] colRuns) {
+        if (rowRuns.length == 0 || colRuns.length == 0) return new BorderClip(0, 0, new byte[0], 0);
+        int firstRow = rowRuns[0];
+        int firstCol = colRuns[0];
+        int rows = rowRuns[rowRuns.length - 1] - firstRow + 1;
+        int cols = colRuns[colRuns.length - 1] - firstCol + 1;
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Selection too large to copy: " + rows + "x" + cols);
+        }
+        byte[] cells = new byte[rows * cols];
+        for (int r = 0; r < rowRuns.length; r += 2) {
+            for (int row = rowRuns[r]; row <= rowRuns[r + 1]; row++) {
+                int offset = (row - firstRow) * cols - firstCol;
+                for (int c = 0; c < colRuns.length; c += 2) {
+                    grid.read(row, colRuns[c], cells, offset + colRuns[c], colRuns[c + 1] - colRuns[c] + 1);
+                }
+            }
+        }
+        int count = 0;
+        for (byte cell : cells) {
+            if ((cell & BorderGrid.SET) != 0) count++;
+        }
+        return new BorderClip(rows, cols, cells, count);
+    }
+
+    /**
+     * Paste with the top-left corner of the clip at (row, col), into the cells of the
+     * given intervals only; the rest of the clip is clipped away.
+     * @return the number of cells written
+     */
+    public int paste(BorderGrid grid, int row, int col, int[] rowRuns, int[] colRuns) {
+        return _paste(grid, row, col, rowRuns, colRuns, false);
+    }
+
+    /**
+     * Forget the borders of exactly the cells paste would write with the same arguments,
+     * leaving skipped cells and gaps between the intervals alone. Used to keep a record grid,
+     * such as the one of BorderPresets.groupSeparators, in step with a paste.
+     */
+    public void unset(BorderGrid grid, int row, int col, int[] rowRuns, int[] colRuns) {
+        _paste(grid, row, col, rowRuns, colRuns, true);
+    }
+
+    private int _paste(BorderGrid grid, int row, int col, int[] rowRuns, int[] colRuns, boolean unset) {
+        int pasted = 0;
+        for (int r = 0; r < rowRuns.length; r += 2) {
+            int from = Math.max(rowRuns[r], row);
+            int to = Math.min(rowRuns[r + 1], row + _rows - 1);
+            for (int target = from; target <= to; target++) {
+                int offset = (target - row) * _cols - col;
+                for (int c = 0; c < colRuns.length; c += 2) {
+                    int start = Math.max(colRuns[c], col);
+                    int end = Math.min(colRuns[c + 1], col + _cols - 1);
+                    if (start > end) continue;
+                    if (unset) {
+                        grid.unset(target, start, _cells, offset + start, end - start + 1);
+                    } else {
+                        pasted += grid.write(target, start, _cells, offset + start, end - start + 1);
+                    }
+                }
+            }
+        }
+        return pasted;
+    }
+
+    public int getRowCount() {
+        return _rows;
+    }
+
+    public int getColumnCount() {
+        return _cols;
+    }
+
+    /** Number of copied cells */
+    public int getCellCount() {
+        return _count;
+    }
+
+    public boolean isEmpty() {
+        return _count == 0;
+    }
+
+    /** Text form, for the system clipboard */
+    public String toText() {
+        StringBuilder text = new StringBuilder(HEADER.length() + 24 + _rows * (_cols + 1));
+        text.append(HEADER).append(_rows).append('x').append(_cols).append('\n');
+        for (int row = 0; row < _rows; row++) {
+            for (int col = 0; col < _cols; col++) {
+                int cell = _cells[row * _cols + col];
+                text.append((cell & BorderGrid.SET) != 0 ? DIGITS.charAt(cell & BorderGrid.SIDES) : SKIPPED);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Read the text form back.
+     * @return null if the text is not a border clip at all
+     * @throws IllegalArgumentException if it starts like one but is malformed
+     */
+    public static BorderClip fromText(String text) {
+        if (text == null || !text.startsWith(HEADER)) return null;
+        int end = text.indexOf('\n');
+        if (end < 0) end = text.length();
+        String size = text.substring(HEADER.length(), end).trim();
+        int x = size.indexOf('x');
+        int rows;
+        int cols;
+        try {
+            rows = Integer.parseInt(size.substring(0, Math.max(x, 0)));
+            cols = Integer.parseInt(size.substring(x + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid border clip size '" + size + "'");
+        }
+        if (rows < 0 || cols < 0 || (long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid border clip size " + rows + "x" + cols);
+        }
+        // every row needs its cells and all but the last a line break: a header alone cannot claim more
+        if (text.length() - (end + 1) < (long) rows * cols + rows - 1) {
+            throw new IllegalArgumentException("Border clip is shorter than its size " + rows + "x" + cols);
+        }
+
+        byte[] cells = new byte[rows * cols];
+        int count = 0;
+        int position = end + 1;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++, position++) {
+                char c = position < text.length() ? text.charAt(position) : '\n';
+                if (c == SKIPPED) continue;
+                if (c == '\n' || c == '\r') {
+                    throw new IllegalArgumentException("Border clip row " + (row + 1) + " is shorter than " + cols);
+                }
+                int sides = DIGITS.indexOf(Character.toLowerCase(c));
+                if (sides < 0) {
+                    throw new IllegalArgumentException("Unexpected '" + c + "' in border clip row " + (row + 1));
+                }
+                cells[row * cols + col] = (byte) (sides | BorderGrid.SET);
+                count++;
+            }
+            if (position < text.length() && text.charAt(position) == '\r') position++;
+            if (position < text.length() && text.charAt(position) != '\n') {
+                throw new IllegalArgumentException("Border clip row " + (row + 1) + " is longer than " + cols);
+            }
+            position++;
+        }
+        return new BorderClip(rows, cols, cells, count);
+    }
+}
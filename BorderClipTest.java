@@ -0,0 +1,44 @@
+/**
+ * Checks for BorderClip; run with java -ea BorderClipTest, exits with an AssertionError on failure.
+ */
+public class BorderClipTest {
+
+    public static void main(String[] args) {
+        textRoundTrip();
+        hugeSizeWithShortBody();
+        shortBody();
+        System.out.println("BorderClipTest passed");
+    }
+
+    static void textRoundTrip() {
+        BorderClip clip = BorderClip.fromText("BORDERS 2x3\n5.f\n0a.\n");
+        check(clip.getRowCount() == 2 && clip.getColumnCount() == 3, "size");
+        check(clip.getCellCount() == 4, "copied cells");
+        check(clip.toText().equals("BORDERS 2x3\n5.f\n0a.\n"), "text form");
+        check(BorderClip.fromText("BORDERS 2x3\n5.f\n0a.").getCellCount() == 4, "no final line break");
+    }
+
+    /** A header claiming billions of cells must be rejected before anything is allocated for them */
+    static void hugeSizeWithShortBody() {
+        expectInvalid("BORDERS 40000x50000\n5f\n");
+        expectInvalid("BORDERS 46340x46340\n");
+    }
+
+    static void shortBody() {
+        expectInvalid("BORDERS 2x3\n5.f\n");
+        expectInvalid("BORDERS 2x3\n5.f\n0a\n");
+    }
+
+    private static void expectInvalid(String text) {
+        try {
+            BorderClip.fromText(text);
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        throw new AssertionError("Accepted " + text.substring(0, text.indexOf('\n')));
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Versioned binary form of a BorderGrid.
+ * <p>
+ * Layout (version 2), integers as unsigned LEB128 varints:
+ * <pre>
+ *   'B' 'G' version
+ *   rows cols
+ *   headerCount { byteLength UTF-8 bytes }*
+ *   { (runLength - 1) &lt;&lt; 5 | cellFlags }*   until rows * cols cells are covered
+ * </pre>
+ * Cells are visited row by row and cellFlags is the raw BorderGrid value (sides plus SET),
+ * so a grid of identical borders costs a few bytes however large it is.
+ * A run never has sides without SET, so cellFlags REPEAT_ROW instead means "the row before,
+ * runLength more times"; it is only written at the start of a row. Blocks edited with the same
+ * borders on every row, like a framed or lined table, then cost a few bytes as well.
+ * Version 1 is the same without REPEAT_ROW and is still read.
+ */
+public class BorderCodec {
+
+    public static final int VERSION = 2;
+
+    private static final int MAGIC_0 = 'B';
+    private static final int MAGIC_1 = 'G';
+    private static final int FLAG_BITS = 5;
+    private static final int FLAG_MASK = (1 << FLAG_BITS) - 1;
+    private static final int REPEAT_ROW = BorderGrid.TOP; // TOP without SET is never a cell value
+
+    private BorderCodec() {}
+
+    /** Encode a grid and its header names (may be empty) */
+    public static byte[] encode(BorderGrid grid, String[] headers) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(MAGIC_0);
+        out.write(MAGIC_1);
+        out.write(VERSION);
+        int rows = grid.getRowCount();
+        int cols = grid.getColumnCount();
+        _writeVarint(out, rows);
+        _writeVarint(out, cols);
+
+        _writeVarint(out, headers.length);
+        for (String header : headers) {
+            byte[] bytes = header.getBytes(StandardCharsets.UTF_8);
+            _writeVarint(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        int value = -1;
+        long run = 0;
+        byte[] previous = new byte[cols];
+        byte[] current = new byte[cols];
+        int row = 0;
+        boolean loaded = false; // current already holds row
+        while (row < rows) {
+            if (!loaded) _readRow(grid, row, current);
+            loaded = false;
+            if (row > 0 && cols > 0 && Arrays.equals(current, previous)) {
+                if (run > 0) _writeRun(out, run, value);
+                value = -1;
+                run = 0;
+                int repeat = 1;
+                while (row + repeat < rows) {
+                    _readRow(grid, row + repeat, current);
+                    if (!Arrays.equals(current, previous)) {
+                        loaded = true;
+                        break;
+                    }
+                    repeat++;
+                }
+                _writeRun(out, repeat, REPEAT_ROW);
+                row += repeat;
+                continue;
+            }
+            for (int col = 0; col < cols; col++) {
+                int cell = current[col];
+                if (cell == value) {
+                    run++;
+                    continue;
+                }
+                if (run > 0) _writeRun(out, run, value);
+                value = cell;
+                run = 1;
+            }
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+            row++;
+        }
+        if (run > 0) _writeRun(out, run, value);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode data produced by encode into the grid, which is resized to the stored dimensions.
+     * @return the header names
+     * @throws IllegalArgumentException if the data is not a supported encoding
+     */
+    public static String[] decode(byte[] data, BorderGrid grid) {
+        Reader in = new Reader(data);
+        if (in.readByte() != MAGIC_0 || in.readByte() != MAGIC_1) {
+            throw new IllegalArgumentException("Not a border grid encoding");
+        }
+        int version = in.readByte();
+        if (version != 1 && version != VERSION) {
+            throw new IllegalArgumentException("Unsupported border grid encoding version " + version);
+        }
+        int rows = in.readInt();
+        int cols = in.readInt();
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid grid size " + rows + "x" + cols);
+        }
+
+        String[] headers = new String[in.readInt()];
+        for (int i = 0; i < headers.length; i++) {
+            int length = in.readInt();
+            headers[i] = new String(data, in.skip(length), length, StandardCharsets.UTF_8);
+        }
+
+        grid.reset(rows, cols);
+        long cells = (long) rows * cols;
+        long cell = 0;
+        byte[] previous = new byte[cols];
+        while (cell < cells) {
+            long token = in.readLong();
+            long run = (token >>> FLAG_BITS) + 1;
+            int value = (int) (token & FLAG_MASK);
+            if (value == REPEAT_ROW && version > 1) {
+                if (cell % cols != 0 || cell == 0 || run > (cells - cell) / cols) {
+                    throw new IllegalArgumentException("Invalid row repeat at cell " + cell);
+                }
+                int from = (int) (cell / cols);
+                for (int col = 0; col < cols; col++) {
+                    previous[col] = (byte) grid.get(from - 1, col);
+                }
+                for (int row = from; row < from + run; row++) {
+                    grid.write(row, 0, previous, 0, cols);
+                }
+                cell += run * cols;
+                continue;
+            }
+            if (run > cells - cell) {
+                throw new IllegalArgumentException("Border run overflows the grid at cell " + cell);
+            }
+            if ((value & BorderGrid.SET) != 0) {
+                for (long i = cell; i < cell + run; i++) {
+                    grid.set((int) (i / cols), (int) (i % cols), value);
+                }
+            }
+            cell += run;
+        }
+        return headers;
+    }
+
+    /** Raw flags of one row */
+    private static void _readRow(BorderGrid grid, int row, byte[] cells) {
+        for (int col = 0; col < cells.length; col++) {
+            cells[col] = (byte) grid.get(row, col);
+        }
+    }
+
+    private static void _writeRun(ByteArrayOutputStream out, long run, int value) {
+        _writeVarint(out, (run - 1) << FLAG_BITS | value);
+    }
+
+    private static void _writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /** Bounds-checked cursor over the encoded bytes */
+    private static final class Reader {
+        private final byte[] _data;
+        private int _position;
+
+        Reader(byte[] data) {
+            _data = data;
+        }
+
+        int readByte() {
+            if (_position >= _data.length) {
+                throw new IllegalArgumentException("Truncated border grid encoding");
+            }
+            return _data[_position++] & 0xFF;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint at byte " + _position);
+        }
+
+        int readInt() {
+            long value = readLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Value out of range at byte " + _position);
+            }
+            return (int) value;
+        }
+
+        /** Advance past length bytes and return where they start */
+        int skip(int length) {
+            if (length > _data.length - _position) {
+                throw new IllegalArgumentException("Truncated border grid encoding");
+            }
+            int start = _position;
+            _position += length;
+            return start;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+import javax.swing.border.MatteBorder;
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Packed border store for the designer grid.
+ * Every cell is one byte holding its top/left/bottom/right flags. Storage rows are grouped in
+ * blocks of 64 that are only allocated when a cell in them is first written, so memory follows
+ * the edited rows rather than the size of the grid. A MatteBorder is only built when a cell is rendered.
+ * <p>
+ * Table rows and columns reach their storage through IndexMaps, so inserting or removing
+ * a row or column updates an O(log n) index instead of moving every stored border.
+ * Removed storage is reclaimed when the grid runs out of spare rows or columns.
+ */
+public class BorderGrid {
+
+    public static final int NONE = 0;
+    public static final int TOP = 1;
+    public static final int LEFT = 2;
+    public static final int BOTTOM = 4;
+    public static final int RIGHT = 8;
+    public static final int SIDES = TOP | LEFT | BOTTOM | RIGHT;
+    /** Marks a cell whose borders were explicitly assigned, even if no side is set */
+    public static final int SET = 16;
+
+    private static final int BLOCK_BITS = 6;
+    private static final int BLOCK_ROWS = 1 << BLOCK_BITS;
+
+    private int _rows;
+    private int _cols;
+    private byte[][] _blocks; // BLOCK_ROWS storage rows of _colCapacity cells each, null while empty
+
+    private final IndexMap _rowMap = new IndexMap(0);
+    private final IndexMap _colMap = new IndexMap(0);
+    private int _rowCapacity;
+    private int _colCapacity;
+    private int _nextRow; // first unused storage row
+    private int _nextCol; // first unused storage column
+
+    public BorderGrid(int rows, int cols) {
+        reset(rows, cols);
+    }
+
+    public int getRowCount() {
+        return _rows;
+    }
+
+    public int getColumnCount() {
+        return _cols;
+    }
+
+    /** Drop all borders and resize the grid */
+    public void reset(int rows, int cols) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Invalid grid size " + rows + "x" + cols);
+        }
+        _rows = rows;
+        _cols = cols;
+        _blocks = new byte[_blockCount(rows)][];
+        _rowMap.reset(rows);
+        _colMap.reset(cols);
+        _rowCapacity = rows;
+        _colCapacity = cols;
+        _nextRow = rows;
+        _nextCol = cols;
+    }
+
+    /** Remove all borders, keeping the dimensions */
+    public void clear() {
+        Arrays.fill(_blocks, null);
+    }
+
+    public boolean contains(int row, int col) {
+        return row >= 0 && row < _rows && col >= 0 && col < _cols;
+    }
+
+    /** Raw cell flags (sides plus SET), NONE outside the grid */
+    public int get(int row, int col) {
+        if (!contains(row, col)) return NONE;
+        int storageRow = _rowMap.get(row);
+        byte[] block = _blocks[storageRow >>> BLOCK_BITS];
+        return block == null ? NONE : block[_offset(storageRow) + _colMap.get(col)];
+    }
+
+    /** Side flags of a cell */
+    public int getSides(int row, int col) {
+        return get(row, col) & SIDES;
+    }
+
+    public boolean isSet(int row, int col) {
+        return (get(row, col) & SET) != 0;
+    }
+
+    /** Assign the sides of a cell; writes outside the grid are ignored */
+    public void set(int row, int col, int sides) {
+        if (!contains(row, col)) return;
+        int storageRow = _rowMap.get(row);
+        _block(storageRow)[_offset(storageRow) + _colMap.get(col)] = (byte) ((sides & SIDES) | SET);
+    }
+
+    /** Assign the sides of every cell in an inclusive rectangle, clipped to the grid */
+    public void fill(int fromRow, int toRow, int fromCol, int toCol, int sides) {
+        apply(Range.of(fromRow, toRow), Range.of(fromCol, toCol), BorderMask.of(sides));
+    }
+
+    /**
+     * Apply a mask to every cell in the given rows and columns, clipped to the grid.
+     * This is one pass over the rectangle, not one edit per cell.
+     */
+    public void apply(Range rows, Range cols, BorderMask mask) {
+        int fromRow = Math.max(rows.getFrom(), 0);
+        int toRow = Math.min(rows.getTo(), _rows - 1);
+        int fromCol = Math.max(cols.getFrom(), 0);
+        int toCol = Math.min(cols.getTo(), _cols - 1);
+        if (fromRow > toRow || fromCol > toCol) return;
+        int[] storageCols = new int[toCol - fromCol + 1];
+        for (int col = fromCol; col <= toCol; col++) {
+            storageCols[col - fromCol] = _colMap.get(col);
+        }
+        byte value = (byte) mask.applyTo(NONE);
+        for (int row = fromRow; row <= toRow; row++) {
+            int storageRow = _rowMap.get(row);
+            byte[] block = _block(storageRow);
+            int offset = _offset(storageRow);
+            if (mask.isReplace()) {
+                for (int col : storageCols) {
+                    block[offset + col] = value;
+                }
+            } else {
+                for (int col : storageCols) {
+                    block[offset + col] = (byte) mask.applyTo(block[offset + col]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the sides of a run of cells of one row out as raw flags, all marked SET,
+     * so writing them back assigns every cell. Cells outside the grid are left as they are.
+     */
+    public void read(int row, int col, byte[] cells, int offset, int length) {
+        if (row < 0 || row >= _rows) return;
+        int from = Math.max(col, 0);
+        int to = Math.min(col + length, _cols);
+        int storageRow = _rowMap.get(row);
+        byte[] block = _blocks[storageRow >>> BLOCK_BITS];
+        int source = _offset(storageRow);
+        for (int c = from; c < to; c++) {
+            int cell = block == null ? NONE : block[source + _colMap.get(c)];
+            cells[offset + c - col] = (byte) ((cell & SIDES) | SET);
+        }
+    }
+
+    /**
+     * Copy raw cell flags (sides plus SET) into a run of cells of one row, clipped to the grid.
+     * Values without SET are skipped, leaving the target cell as it was.
+     * @return the number of cells written
+     */
+    public int write(int row, int col, byte[] cells, int offset, int length) {
+        if (row < 0 || row >= _rows) return 0;
+        int from = Math.max(col, 0);
+        int to = Math.min(col + length, _cols);
+        int storageRow = _rowMap.get(row);
+        int target = _offset(storageRow);
+        byte[] block = null;
+        int written = 0;
+        for (int c = from; c < to; c++) {
+            byte value = cells[offset + c - col];
+            if ((value & SET) == 0) continue;
+            if (block == null) block = _block(storageRow);
+            block[target + _colMap.get(c)] = (byte) (value & (SIDES | SET));
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Forget the cells of a run that write would assign with the same arguments:
+     * those whose value carries SET. The others are left as they are.
+     */
+    public void unset(int row, int col, byte[] cells, int offset, int length) {
+        if (row < 0 || row >= _rows) return;
+        int storageRow = _rowMap.get(row);
+        byte[] block = _blocks[storageRow >>> BLOCK_BITS];
+        if (block == null) return;
+        int target = _offset(storageRow);
+        int to = Math.min(col + length, _cols);
+        for (int c = Math.max(col, 0); c < to; c++) {
+            if ((cells[offset + c - col] & SET) != 0) block[target + _colMap.get(c)] = NONE;
+        }
+    }
+
+    /** Forget the borders of a cell */
+    public void unset(int row, int col) {
+        if (!contains(row, col)) return;
+        int storageRow = _rowMap.get(row);
+        byte[] block = _blocks[storageRow >>> BLOCK_BITS];
+        if (block != null) block[_offset(storageRow) + _colMap.get(col)] = NONE;
+    }
+
+    /** Forget the borders of every cell in the given rows and columns, clipped to the grid */
+    public void unset(Range rows, Range cols) {
+        int fromRow = Math.max(rows.getFrom(), 0);
+        int toRow = Math.min(rows.getTo(), _rows - 1);
+        int fromCol = Math.max(cols.getFrom(), 0);
+        int toCol = Math.min(cols.getTo(), _cols - 1);
+        for (int row = fromRow; row <= toRow; row++) {
+            int storageRow = _rowMap.get(row);
+            byte[] block = _blocks[storageRow >>> BLOCK_BITS];
+            if (block == null) continue;
+            int offset = _offset(storageRow);
+            for (int col = fromCol; col <= toCol; col++) {
+                block[offset + _colMap.get(col)] = NONE;
+            }
+        }
+    }
+
+    /** True if the row may hold assigned borders; false is certain, true means look at its cells */
+    public boolean mayHaveSet(int row) {
+        return row >= 0 && row < _rows && _blocks[_rowMap.get(row) >>> BLOCK_BITS] != null;
+    }
+
+    /** Number of cells with explicitly assigned borders */
+    public int getSetCount() {
+        int[] cols = _colMap.toArray();
+        int count = 0;
+        for (int row = 0; row < _rows; row++) {
+            int storageRow = _rowMap.get(row);
+            byte[] block = _blocks[storageRow >>> BLOCK_BITS];
+            if (block == null) continue;
+            int offset = _offset(storageRow);
+            for (int col : cols) {
+                if ((block[offset + col] & SET) != 0) count++;
+            }
+        }
+        return count;
+    }
+
+    /** Open an empty row at the given index, moving the rows below it down */
+    public void insertRow(int row) {
+        if (row < 0 || row > _rows) return;
+        if (_nextRow == _rowCapacity) {
+            _compact(Math.max(2 * _rows, _rows + 8), _colCapacity);
+        }
+        _rowMap.insert(row, _nextRow++);
+        _rows++;
+    }
+
+    /** Drop a row, moving the rows below it up */
+    public void removeRow(int row) {
+        if (row < 0 || row >= _rows) return;
+        _rowMap.remove(row);
+        _rows--;
+    }
+
+    /** Open an empty column at the given index, moving the columns after it right */
+    public void insertColumn(int col) {
+        if (col < 0 || col > _cols) return;
+        if (_nextCol == _colCapacity) {
+            _compact(_rowCapacity, Math.max(2 * _cols, _cols + 8));
+        }
+        _colMap.insert(col, _nextCol++);
+        _cols++;
+    }
+
+    /** Drop a column, moving the columns after it left */
+    public void removeColumn(int col) {
+        if (col < 0 || col >= _cols) return;
+        _colMap.remove(col);
+        _cols--;
+    }
+
+    /** Block of a storage row, allocated on first use */
+    private byte[] _block(int storageRow) {
+        byte[] block = _blocks[storageRow >>> BLOCK_BITS];
+        if (block == null) {
+            block = new byte[BLOCK_ROWS * _colCapacity];
+            _blocks[storageRow >>> BLOCK_BITS] = block;
+        }
+        return block;
+    }
+
+    /** Start of a storage row in its block */
+    private int _offset(int storageRow) {
+        return (storageRow & (BLOCK_ROWS - 1)) * _colCapacity;
+    }
+
+    private static int _blockCount(int rows) {
+        return (rows + BLOCK_ROWS - 1) >>> BLOCK_BITS;
+    }
+
+    /**
+     * Copy the live cells into fresh storage in table order, dropping removed rows and columns.
+     * Only blocks that hold a written row are allocated. Unused storage stays zeroed,
+     * which is what newly inserted rows and columns rely on.
+     */
+    private void _compact(int rowCapacity, int colCapacity) {
+        byte[][] blocks = new byte[_blockCount(rowCapacity)][];
+        int[] cols = _colMap.toArray();
+        for (int row = 0; row < _rows; row++) {
+            int storageRow = _rowMap.get(row);
+            byte[] from = _blocks[storageRow >>> BLOCK_BITS];
+            if (from == null) continue;
+            int fromOffset = _offset(storageRow);
+            byte[] to = blocks[row >>> BLOCK_BITS];
+            if (to == null) {
+                to = new byte[BLOCK_ROWS * colCapacity];
+                blocks[row >>> BLOCK_BITS] = to;
+            }
+            int toOffset = (row & (BLOCK_ROWS - 1)) * colCapacity;
+            for (int col = 0; col < _cols; col++) {
+                to[toOffset + col] = from[fromOffset + cols[col]];
+            }
+        }
+        _blocks = blocks;
+        _rowCapacity = rowCapacity;
+        _colCapacity = colCapacity;
+        _rowMap.reset(_rows);
+        _colMap.reset(_cols);
+        _nextRow = _rows;
+        _nextCol = _cols;
+    }
+
+    /** Inclusive run of row or column indexes, empty when from is after to */
+    public static final class Range {
+        private final int _from;
+        private final int _to;
+
+        private Range(int from, int to) {
+            _from = from;
+            _to = to;
+        }
+
+        public static Range of(int from, int to) {
+            return new Range(from, to);
+        }
+
+        public static Range single(int index) {
+            return new Range(index, index);
+        }
+
+        /** Indexes 0 to count - 1 */
+        public static Range all(int count) {
+            return new Range(0, count - 1);
+        }
+
+        public int getFrom() {
+            return _from;
+        }
+
+        public int getTo() {
+            return _to;
+        }
+
+        public int size() {
+            return Math.max(_to - _from + 1, 0);
+        }
+
+        public boolean isEmpty() {
+            return _from > _to;
+        }
+    }
+
+    /** MatteBorder view of a cell, built on demand */
+    public MatteBorder getBorder(int row, int col, Color color) {
+        return toBorder(getSides(row, col), color);
+    }
+
+    public static int sides(boolean top, boolean left, boolean bottom, boolean right) {
+        return (top ? TOP : 0) | (left ? LEFT : 0) | (bottom ? BOTTOM : 0) | (right ? RIGHT : 0);
+    }
+
+    public static int sides(Insets insets) {
+        return sides(insets.top > 0, insets.left > 0, insets.bottom > 0, insets.right > 0);
+    }
+
+    public static MatteBorder toBorder(int sides, Color color) {
+        return new MatteBorder((sides & TOP) != 0 ? 1 : 0, (sides & LEFT) != 0 ? 1 : 0,
+                (sides & BOTTOM) != 0 ? 1 : 0, (sides & RIGHT) != 0 ? 1 : 0, color);
+    }
+}
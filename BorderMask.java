@@ -0,0 +1,67 @@
+/**
+ * Change to the sides of a cell: sides to turn on and sides to turn off, the rest kept.
+ * Every cell a mask is applied to is marked SET.
+ * <p>
+ * Masks are immutable and shared, one instance per distinct change, so they cost nothing to pass around.
+ */
+public final class BorderMask {
+
+    private static final BorderMask[] MASKS = new BorderMask[(BorderGrid.SIDES + 1) * (BorderGrid.SIDES + 1)];
+
+    static {
+        for (int clear = 0; clear <= BorderGrid.SIDES; clear++) {
+            for (int add = 0; add <= BorderGrid.SIDES; add++) {
+                MASKS[clear * (BorderGrid.SIDES + 1) + add] = new BorderMask(add, clear);
+            }
+        }
+    }
+
+    private final int _add;
+    private final int _clear;
+
+    private BorderMask(int add, int clear) {
+        _add = add;
+        _clear = clear;
+    }
+
+    /** Replace the sides of a cell with exactly these */
+    public static BorderMask of(int sides) {
+        return change(sides, BorderGrid.SIDES);
+    }
+
+    /** Turn these sides on, keeping the others */
+    public static BorderMask add(int sides) {
+        return change(sides, BorderGrid.NONE);
+    }
+
+    /** Turn these sides off, keeping the others */
+    public static BorderMask remove(int sides) {
+        return change(BorderGrid.NONE, sides);
+    }
+
+    /** Turn on add and turn off clear; a side in both ends up on */
+    public static BorderMask change(int add, int clear) {
+        add &= BorderGrid.SIDES;
+        return MASKS[(clear & BorderGrid.SIDES & ~add) * (BorderGrid.SIDES + 1) + add];
+    }
+
+    /** Sides turned on */
+    public int getAdded() {
+        return _add;
+    }
+
+    /** Sides turned off */
+    public int getCleared() {
+        return _clear;
+    }
+
+    /** True if the result does not depend on the sides a cell had */
+    public boolean isReplace() {
+        return (_add | _clear) == BorderGrid.SIDES;
+    }
+
+    /** Raw cell flags after applying the mask to a cell with the given flags */
+    public int applyTo(int cell) {
+        return (cell & BorderGrid.SIDES & ~_clear) | _add | BorderGrid.SET;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Common report layouts applied to a block of the border grid.
+ * Each preset but the group separators is a handful of range writes, so its cost does not grow
+ * with the number of cells in a row, and the resulting runs of equal borders keep the saved form compact.
+ * <p>
+ * Lines between cells are drawn by the cell above (BOTTOM) or on the left (RIGHT).
+ * Blocks are clipped to the grid first, so the edges of an oversized block are the grid's.
+ */
+public final class BorderPresets {
+
+    /** Record flag of groupSeparators: the cell had no assigned borders before its line */
+    private static final int WAS_UNSET = BorderGrid.TOP;
+
+    private BorderPresets() {}
+
+    /** A frame around the block and no borders inside it */
+    public static void outline(BorderGrid grid, BorderGrid.Range rows, BorderGrid.Range cols) {
+        rows = _clip(rows, grid.getRowCount());
+        cols = _clip(cols, grid.getColumnCount());
+        if (rows.isEmpty() || cols.isEmpty()) return;
+        grid.apply(rows, cols, BorderMask.of(BorderGrid.NONE));
+        grid.apply(BorderGrid.Range.single(rows.getFrom()), cols, BorderMask.add(BorderGrid.TOP));
+        grid.apply(BorderGrid.Range.single(rows.getTo()), cols, BorderMask.add(BorderGrid.BOTTOM));
+        grid.apply(rows, BorderGrid.Range.single(cols.getFrom()), BorderMask.add(BorderGrid.LEFT));
+        grid.apply(rows, BorderGrid.Range.single(cols.getTo()), BorderMask.add(BorderGrid.RIGHT));
+    }
+
+    /** A line between every two rows of the block, keeping the other borders */
+    public static void innerHorizontal(BorderGrid grid, BorderGrid.Range rows, BorderGrid.Range cols) {
+        rows = _clip(rows, grid.getRowCount());
+        grid.apply(BorderGrid.Range.of(rows.getFrom(), rows.getTo() - 1), cols, BorderMask.add(BorderGrid.BOTTOM));
+    }
+
+    /** A line between every two columns of the block, keeping the other borders */
+    public static void innerVertical(BorderGrid grid, BorderGrid.Range rows, BorderGrid.Range cols) {
+        cols = _clip(cols, grid.getColumnCount());
+        grid.apply(rows, BorderGrid.Range.of(cols.getFrom(), cols.getTo() - 1), BorderMask.add(BorderGrid.RIGHT));
+    }
+
+    /** Every side of every cell */
+    public static void allLines(BorderGrid grid, BorderGrid.Range rows, BorderGrid.Range cols) {
+        grid.apply(rows, cols, BorderMask.of(BorderGrid.SIDES));
+    }
+
+    /**
+     * A line under every group of rows, starting from the first row of the block.
+     * No line is drawn under the last row of the block; that is the outline's job.
+     * <p>
+     * Cells that already had a bottom line are left alone. Every cell that gains one is marked
+     * in the record, a grid of the same size kept in step with row and column edits,
+     * so removeGroupSeparators can take back exactly these lines later.
+     * @param groupSize rows per group
+     * @param record cells changed here; SET for a cell that got its line, plus TOP if it was not set before
+     */
+    public static void groupSeparators(BorderGrid grid, BorderGrid.Range rows, BorderGrid.Range cols,
+                                       int groupSize, BorderGrid record) {
+        if (groupSize <= 0) throw new IllegalArgumentException("Invalid group size " + groupSize);
+        _checkRecord(grid, record);
+        rows = _clip(rows, grid.getRowCount());
+        cols = _clip(cols, grid.getColumnCount());
+        for (long row = (long) rows.getFrom() + groupSize - 1; row < rows.getTo(); row += groupSize) {
+            for (int col = cols.getFrom(); col <= cols.getTo(); col++) {
+                int cell = grid.get((int) row, col);
+                if ((cell & BorderGrid.BOTTOM) != 0) continue;
+                grid.set((int) row, col, cell | BorderGrid.BOTTOM);
+                record.set((int) row, col, (cell & BorderGrid.SET) != 0 ? BorderGrid.NONE : WAS_UNSET);
+            }
+        }
+    }
+
+    /**
+     * Undo groupSeparators: take the bottom line off every cell in the record, and forget
+     * the borders of a cell that was not set before and has no other side now.
+     * Lines removed since are not put back. The record is cleared.
+     */
+    public static void removeGroupSeparators(BorderGrid grid, BorderGrid record) {
+        _checkRecord(grid, record);
+        for (int row = 0; row < record.getRowCount(); row++) {
+            if (!record.mayHaveSet(row)) continue;
+            for (int col = 0; col < record.getColumnCount(); col++) {
+                int added = record.get(row, col);
+                int cell = grid.get(row, col);
+                if ((added & BorderGrid.SET) == 0 || (cell & BorderGrid.BOTTOM) == 0) continue;
+                int sides = cell & BorderGrid.SIDES & ~BorderGrid.BOTTOM;
+                if ((added & WAS_UNSET) != 0 && sides == BorderGrid.NONE) {
+                    grid.unset(row, col);
+                } else {
+                    grid.set(row, col, sides);
+                }
+            }
+        }
+        record.clear();
+    }
+
+    private static void _checkRecord(BorderGrid grid, BorderGrid record) {
+        if (record.getRowCount() != grid.getRowCount() || record.getColumnCount() != grid.getColumnCount()) {
+            throw new IllegalArgumentException("Separator record is " + record.getRowCount() + "x"
+                    + record.getColumnCount() + ", grid is " + grid.getRowCount() + "x" + grid.getColumnCount());
+        }
+    }
+
+    private static BorderGrid.Range _clip(BorderGrid.Range range, int count) {
+        return BorderGrid.Range.of(Math.max(range.getFrom(), 0), Math.min(range.getTo(), count - 1));
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Checks for BorderPresets; run with java -ea BorderPresetsTest, exits with an AssertionError on failure.
+ */
+public class BorderPresetsTest {
+
+    public static void main(String[] args) {
+        separatorsUndoExactly();
+        separatorsFollowInsertedRows();
+        pasteWithGapsOverSeparators();
+        System.out.println("BorderPresetsTest passed");
+    }
+
+    /** Unticking leaves no extra SET cells and keeps the bottom lines the user drew */
+    static void separatorsUndoExactly() {
+        BorderGrid grid = new BorderGrid(11, 8);
+        BorderGrid record = new BorderGrid(11, 8);
+        grid.set(3, 2, BorderGrid.BOTTOM);
+        grid.set(6, 3, BorderGrid.LEFT);
+        grid.set(6, 4, BorderGrid.NONE);
+        BorderPresets.groupSeparators(grid, BorderGrid.Range.of(1, 10), BorderGrid.Range.of(1, 7), 3, record);
+        check(grid.getSides(9, 5) == BorderGrid.BOTTOM, "separator drawn");
+
+        BorderPresets.removeGroupSeparators(grid, record);
+        check(grid.getSetCount() == 3, "no extra SET cells");
+        check(grid.getSides(3, 2) == BorderGrid.BOTTOM, "user bottom line kept");
+        check(grid.getSides(6, 3) == BorderGrid.LEFT, "other sides kept");
+        check(grid.isSet(6, 4), "explicit NONE kept");
+        check(record.getSetCount() == 0, "record cleared");
+    }
+
+    /** The record moves with the rows, so unticking after an insert hits the shifted lines */
+    static void separatorsFollowInsertedRows() {
+        BorderGrid grid = new BorderGrid(11, 8);
+        BorderGrid record = new BorderGrid(11, 8);
+        BorderPresets.groupSeparators(grid, BorderGrid.Range.of(1, 10), BorderGrid.Range.of(1, 7), 3, record);
+        grid.insertRow(2);
+        record.insertRow(2);
+        grid.set(3, 1, BorderGrid.BOTTOM);
+        record.unset(3, 1);
+
+        BorderPresets.removeGroupSeparators(grid, record);
+        check(grid.getSetCount() == 1 && grid.getSides(3, 1) == BorderGrid.BOTTOM, "only the user's line left");
+    }
+
+    /**
+     * A clip with skipped cells pasted into a selection with gaps: only the pasted cells leave the
+     * record, and every separator line outside them is gone after unticking.
+     */
+    static void pasteWithGapsOverSeparators() {
+        BorderGrid grid = new BorderGrid(11, 8);
+        BorderGrid record = new BorderGrid(11, 8);
+        BorderPresets.groupSeparators(grid, BorderGrid.Range.of(1, 10), BorderGrid.Range.of(1, 7), 3, record);
+
+        BorderClip clip = BorderClip.fromText("BORDERS 5x4\n1111\n1.11\n1111\n1111\n.1.1\n");
+        int[] rowRuns = {2, 3, 5, 6};
+        int[] colRuns = {1, 2, 4, 4};
+        int pasted = clip.paste(grid, 2, 1, rowRuns, colRuns);
+        clip.unset(record, 2, 1, rowRuns, colRuns);
+        BorderPresets.removeGroupSeparators(grid, record);
+
+        check(grid.getSetCount() == pasted, "only pasted cells are set");
+        for (int row = 0; row < grid.getRowCount(); row++) {
+            for (int col = 0; col < grid.getColumnCount(); col++) {
+                if (grid.isSet(row, col)) {
+                    check(grid.getSides(row, col) == BorderGrid.TOP, "pasted cell " + row + "," + col);
+                }
+            }
+        }
+        check(!grid.isSet(3, 2), "skipped cell of the clip lost its separator");
+        check(!grid.isSet(3, 3), "cell in a column gap lost its separator");
+        check(!grid.isSet(6, 1), "skipped cell on the next separator row lost its separator");
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+}
@@ -0,0 +1,207 @@
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Single-pass parser for the text border format written by the designer:
+ * <pre>
+ *   DIMENSIONS:rows:cols
+ *   row:col:top:right:bottom:left
+ *   row1-row2:col1-col2:top:right:bottom:left
+ * </pre>
+ * Rows and columns may be inclusive ranges, which apply the same borders to a whole rectangle.
+ * Characters are consumed one at a time straight into the BorderGrid, whose row 0 holds
+ * the headers (row = -1), so no line strings or split arrays are created.
+ * Blank lines and surrounding whitespace are ignored; anything else that does not match
+ * is reported with its line and column.
+ */
+public class BorderTextParser {
+
+    /** Malformed input, with the 1-based position of the offending character */
+    public static class ParseException extends IllegalArgumentException {
+        private final int _line;
+        private final int _column;
+
+        public ParseException(String message, int line, int column) {
+            super(message + " at line " + line + ", column " + column);
+            _line = line;
+            _column = column;
+        }
+
+        public int getLine() {
+            return _line;
+        }
+
+        public int getColumn() {
+            return _column;
+        }
+    }
+
+    private static final String KEYWORD = "DIMENSIONS";
+    private static final int BORDER_FIELDS = 6;
+    private static final int DIMENSION_FIELDS = 2;
+
+    private final BorderGrid _grid;
+    private final int[] _fields = new int[BORDER_FIELDS];
+    private final int[] _fieldEnds = new int[2]; // range ends of the row and column fields
+
+    private int _line = 1;
+    private int _column;
+
+    // state of the current line
+    private boolean _started;   // a non-blank character was seen
+    private boolean _trailing;  // only whitespace may follow
+    private int _keyword;       // characters of KEYWORD matched, -1 for a border line
+    private boolean _dimensions;
+    private int _fieldCount;
+    private long _value;
+    private boolean _negative;
+    private boolean _hasSign;
+    private boolean _hasDigits;
+    private boolean _range;     // the current field is a range and its start is in _rangeStart
+    private int _rangeStart;
+
+    public BorderTextParser(BorderGrid grid) {
+        _grid = grid;
+        _startLine();
+    }
+
+    /** Parse a whole text; a final line without a line break is parsed too */
+    public void parse(CharSequence text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            _accept(text.charAt(i));
+        }
+        _endLine();
+    }
+
+    /** Parse everything the reader returns; the reader is not closed */
+    public void parse(Reader reader) throws IOException {
+        char[] buffer = new char[8192];
+        int count;
+        while ((count = reader.read(buffer)) >= 0) {
+            for (int i = 0; i < count; i++) {
+                _accept(buffer[i]);
+            }
+        }
+        _endLine();
+    }
+
+    /** Parse one line without its line break */
+    public void parseLine(CharSequence line) {
+        parse(line);
+    }
+
+    private void _accept(char c) {
+        if (c == '\n') {
+            _endLine();
+            return;
+        }
+        _column++;
+        if (Character.isWhitespace(c)) {
+            if (_started) _trailing = true;
+            return;
+        }
+        if (_trailing) throw _error("Unexpected '" + c + "'");
+        if (!_started) {
+            _started = true;
+            if (c == KEYWORD.charAt(0)) {
+                _keyword = 1;
+                return;
+            }
+        }
+
+        if (_keyword > 0) {
+            if (_keyword < KEYWORD.length()) {
+                if (c != KEYWORD.charAt(_keyword)) throw _error("Expected " + KEYWORD);
+                _keyword++;
+            } else {
+                if (c != ':') throw _error("Expected ':' after " + KEYWORD);
+                _keyword = -1;
+                _dimensions = true;
+            }
+        } else if (c == ':') {
+            _endField();
+        } else if (c >= '0' && c <= '9') {
+            _value = _value * 10 + (c - '0');
+            if (_value > Integer.MAX_VALUE + 1L) throw _error("Number too large");
+            _hasDigits = true;
+        } else if (c == '-' && _hasDigits && !_range && !_dimensions && _fieldCount < _fieldEnds.length) {
+            _rangeStart = _number();
+            _range = true;
+        } else if ((c == '-' || c == '+') && !_hasSign && !_hasDigits) {
+            _negative = c == '-';
+            _hasSign = true;
+        } else {
+            throw _error("Unexpected '" + c + "'");
+        }
+    }
+
+    private void _endField() {
+        if (_fieldCount == (_dimensions ? DIMENSION_FIELDS : BORDER_FIELDS)) {
+            throw _error("Too many fields");
+        }
+        int value = _number();
+        if (_range) {
+            if (value < _rangeStart) throw _error("Invalid range " + _rangeStart + "-" + value);
+            _fields[_fieldCount] = _rangeStart;
+            _fieldEnds[_fieldCount] = value;
+            _range = false;
+        } else {
+            _fields[_fieldCount] = value;
+            if (_fieldCount < _fieldEnds.length) _fieldEnds[_fieldCount] = value;
+        }
+        _fieldCount++;
+    }
+
+    /** The number just scanned; resets the number state */
+    private int _number() {
+        if (!_hasDigits) throw _error("Expected a number");
+        long value = _negative ? -_value : _value;
+        if (value > Integer.MAX_VALUE) throw _error("Number too large");
+        _value = 0;
+        _negative = false;
+        _hasSign = false;
+        _hasDigits = false;
+        return (int) value;
+    }
+
+    private void _endLine() {
+        if (_started) {
+            _column++;
+            if (_keyword > 0) throw _error("Expected ':' after " + KEYWORD);
+            _endField();
+            if (_dimensions) {
+                if (_fieldCount != DIMENSION_FIELDS) throw _error("Expected " + KEYWORD + ":rows:cols");
+                int rows = _fields[0];
+                int cols = _fields[1];
+                if (rows < 0 || cols < 0 || ((long) rows + 1) * cols > Integer.MAX_VALUE) {
+                    throw _error("Invalid dimensions " + rows + "x" + cols);
+                }
+                _grid.reset(rows + 1, cols);
+            } else {
+                if (_fieldCount != BORDER_FIELDS) throw _error("Expected row:col:top:right:bottom:left");
+                _grid.fill(_fields[0] + 1, _fieldEnds[0] + 1, _fields[1], _fieldEnds[1], BorderGrid.sides(
+                        _fields[2] > 0, _fields[5] > 0, _fields[4] > 0, _fields[3] > 0));
+            }
+        }
+        _line++;
+        _startLine();
+    }
+
+    private void _startLine() {
+        _column = 0;
+        _started = false;
+        _trailing = false;
+        _keyword = -1;
+        _dimensions = false;
+        _fieldCount = 0;
+        _value = 0;
+        _negative = false;
+        _hasSign = false;
+        _hasDigits = false;
+        _range = false;
+    }
+
+    private ParseException _error(String message) {
+        return new ParseException(message, _line, _column);
+    }
+}
@@ -0,0 +1,129 @@
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Column-oriented table model for the designer grid.
+ * Every column keeps its values in its own array. Rows and columns are reached through
+ * IndexMaps, so inserting or removing one never shifts stored values.
+ * <p>
+ * The model is virtual: a column array is only allocated when a value is first written to it,
+ * and subclasses can compute values such as header labels in getValueAt instead of storing them.
+ * Creating a model costs nothing per cell.
+ * <p>
+ * Row changes fire row-range events. Column changes fire no event: the designer table
+ * does not auto-create columns from the model, and its owner adds or removes the
+ * matching TableColumn itself, so JTable keeps its selection and layout.
+ */
+public class GridTableModel extends AbstractTableModel {
+
+    private int _rowCount;
+    private int _columnCount;
+
+    private final IndexMap _rowMap = new IndexMap(0);
+    private final IndexMap _colMap = new IndexMap(0);
+    private Object[][] _columns; // storage column -> values by storage row, null until written
+    private int _rowCapacity;
+    private int _nextRow; // first unused storage row
+    private int _nextCol; // first unused storage column
+
+    public GridTableModel(int rowCount, int columnCount) {
+        _rowCount = rowCount;
+        _columnCount = columnCount;
+        _rowMap.reset(rowCount);
+        _colMap.reset(columnCount);
+        _rowCapacity = rowCount;
+        _nextRow = rowCount;
+        _nextCol = columnCount;
+        _columns = new Object[columnCount][];
+    }
+
+    @Override
+    public int getRowCount() {
+        return _rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return _columnCount;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Object[] values = _columns[_colMap.get(column)];
+        return values == null ? null : values[_rowMap.get(row)];
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        int storageColumn = _colMap.get(column);
+        if (_columns[storageColumn] == null) {
+            if (value == null) return;
+            _columns[storageColumn] = new Object[_rowCapacity];
+        }
+        _columns[storageColumn][_rowMap.get(row)] = value;
+        fireTableCellUpdated(row, column);
+    }
+
+    /** Insert an empty row at the given index */
+    public void insertRow(int row) {
+        if (_nextRow == _rowCapacity) {
+            _compactRows(Math.max(2 * _rowCount, _rowCount + 8));
+        }
+        _rowMap.insert(row, _nextRow++);
+        _rowCount++;
+        fireTableRowsInserted(row, row);
+    }
+
+    public void removeRow(int row) {
+        int storageRow = _rowMap.remove(row);
+        for (Object[] values : _columns) {
+            if (values != null) values[storageRow] = null;
+        }
+        _rowCount--;
+        fireTableRowsDeleted(row, row);
+    }
+
+    /** Insert an empty column at the given index; the caller adds the TableColumn */
+    public void insertColumn(int column) {
+        if (_nextCol == _columns.length) {
+            _compactColumns(Math.max(2 * _columnCount, _columnCount + 8));
+        }
+        _columns[_nextCol] = null;
+        _colMap.insert(column, _nextCol++);
+        _columnCount++;
+    }
+
+    /** Remove a column in O(log n); the caller removes the TableColumn */
+    public void removeColumn(int column) {
+        _columns[_colMap.remove(column)] = null;
+        _columnCount--;
+    }
+
+    /** Copy live rows into fresh column arrays in table order */
+    private void _compactRows(int rowCapacity) {
+        int[] rows = _rowMap.toArray();
+        for (int col = 0; col < _nextCol; col++) {
+            Object[] values = _columns[col];
+            if (values == null) continue;
+            Object[] compacted = new Object[rowCapacity];
+            for (int row = 0; row < _rowCount; row++) {
+                compacted[row] = values[rows[row]];
+            }
+            _columns[col] = compacted;
+        }
+        _rowCapacity = rowCapacity;
+        _rowMap.reset(_rowCount);
+        _nextRow = _rowCount;
+    }
+
+    /** Drop removed columns and put the live ones back in table order */
+    private void _compactColumns(int columnCapacity) {
+        int[] columns = _colMap.toArray();
+        Object[][] compacted = new Object[columnCapacity][];
+        for (int col = 0; col < _columnCount; col++) {
+            compacted[col] = _columns[columns[col]];
+        }
+        _columns = compacted;
+        _colMap.reset(_columnCount);
+        _nextCol = _columnCount;
+    }
+}
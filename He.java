@@ -6,12 +6,15 @@ import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class BorderDesignerApp extends JFrame {
 
+    private static final Color BORDER_COLOR = new Color(100, 100, 100);
+    private static final Color HEADER_BACKGROUND = new Color(60, 110, 160);
+    private static final Font HEADER_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    private static final MatteBorder DEFAULT_HEADER_BORDER = new MatteBorder(0, 0, 2, 0, new Color(40, 80, 130));
+
     private final JTextField _rowInput = new JTextField("6", 5);
     private final JTextField _colInput = new JTextField("6", 5);
     private final JButton _createButton = new JButton("Create Table");
@@ -24,8 +27,8 @@ public class BorderDesignerApp extends JFrame {
 
     private JTable _table;
     private final JPanel _tablePanel = new JPanel(new BorderLayout());
-    private final Map<Point, MatteBorder> _cellBorders = new HashMap<>();
-    private MatteBorder _copiedBorder = null;
+    private final BorderGrid _cellBorders = new BorderGrid(0, 0); // grid row 0 holds the headers (row = -1)
+    private Integer _copiedBorder = null;
     
     private BorderItem _currentItem = new BorderItem();
 
@@ -70,8 +73,8 @@ public class BorderDesignerApp extends JFrame {
         add(_tablePanel, BorderLayout.CENTER);
 
         _createButton.addActionListener(this::_createTable);
-        _saveButton.addActionListener(e -> _saveItem());
-        _loadButton.addActionListener(e -> _loadItem());
+        _saveButton.addActionListener(e -> _showSaveDialog());
+        _loadButton.addActionListener(e -> _showLoadDialog());
         _refreshButton.addActionListener(e -> _refresh());
         _applyButton.addActionListener(e -> _apply());
         _clearButton.addActionListener(e -> _clearBorders());
@@ -94,7 +97,12 @@ public class BorderDesignerApp extends JFrame {
             return;
         }
 
-        _cellBorders.clear(); // reset old borders
+        _cellBorders.reset(rows + 1, cols); // reset old borders
+        _buildTable(rows, cols);
+    }
+
+    /** Build the table for the current border grid */
+    private void _buildTable(int rows, int cols) {
         _tablePanel.removeAll();
 
         _table = new JTable(rows, cols);
@@ -103,33 +111,18 @@ public class BorderDesignerApp extends JFrame {
         
         // Customize table headers
         JTableHeader header = _table.getTableHeader();
-        header.setBackground(new Color(60, 110, 160));
+        header.setBackground(HEADER_BACKGROUND);
         header.setForeground(Color.WHITE);
-        header.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        header.setFont(HEADER_FONT);
         
         // Set simple header names (1, 2, 3, ...)
         for (int i = 0; i < _table.getColumnCount(); i++) {
             _table.getColumnModel().getColumn(i).setHeaderValue(String.valueOf(i + 1));
         }
 
-        // Renderer to draw borders for cells
-        _table.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value,
-                                                           boolean isSelected, boolean hasFocus,
-                                                           int row, int col) {
-                JLabel c = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, col);
-                c.setHorizontalAlignment(CENTER);
-                c.setBackground(isSelected ? new Color(220, 235, 255) : Color.WHITE);
-                c.setForeground(Color.DARK_GRAY);
-                c.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-                
-                MatteBorder b = _cellBorders.getOrDefault(new Point(row, col),
-                        new MatteBorder(0, 0, 0, 0, new Color(100, 100, 100)));
-                c.setBorder(b);
-                return c;
-            }
-        });
+        // Renderer to draw borders for cells (grid row 0 is the header)
+        BorderCellRenderer cellRenderer = new BorderCellRenderer(_cellBorders, 1, BORDER_COLOR, false);
+        _table.setDefaultRenderer(Object.class, cellRenderer);
         
         // Header renderer - headers can have borders too
         _table.getTableHeader().setDefaultRenderer(new DefaultTableCellRenderer() {
@@ -139,14 +132,16 @@ public class BorderDesignerApp extends JFrame {
                                                            int row, int column) {
                 JLabel c = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
                 c.setHorizontalAlignment(CENTER);
-                c.setBackground(new Color(60, 110, 160));
+                c.setBackground(HEADER_BACKGROUND);
                 c.setForeground(Color.WHITE);
-                c.setFont(new Font("Segoe UI", Font.BOLD, 14));
+                c.setFont(HEADER_FONT);
                 
                 // Headers can have borders too (row = -1)
-                MatteBorder b = _cellBorders.getOrDefault(new Point(-1, column),
-                        new MatteBorder(0, 0, 2, 0, new Color(40, 80, 130)));
-                c.setBorder(b);
+                if (_cellBorders.isSet(0, column)) {
+                    c.setBorder(cellRenderer.getBorder(_cellBorders.getSides(0, column)));
+                } else {
+                    c.setBorder(DEFAULT_HEADER_BORDER);
+                }
                 return c;
             }
         });
@@ -182,20 +177,17 @@ public class BorderDesignerApp extends JFrame {
         
         if (selections == null || selections.length == 0) return;
 
-        Point first = selections[0];
-        MatteBorder current = _cellBorders.getOrDefault(first, 
-                isHeader ? new MatteBorder(0, 0, 2, 0, new Color(40, 80, 130)) : 
-                           new MatteBorder(0, 0, 0, 0, new Color(100, 100, 100)));
+        int current = _getSides(selections[0]);
 
         // Create a nicely styled border editing panel
         JPanel panel = new JPanel(new GridLayout(2, 2, 10, 10));
         panel.setBorder(new EmptyBorder(15, 15, 15, 15));
         panel.setBackground(new Color(245, 247, 250));
         
-        JCheckBox top = new JCheckBox("Top", current.getBorderInsets().top > 0);
-        JCheckBox bottom = new JCheckBox("Bottom", current.getBorderInsets().bottom > 0);
-        JCheckBox left = new JCheckBox("Left", current.getBorderInsets().left > 0);
-        JCheckBox right = new JCheckBox("Right", current.getBorderInsets().right > 0);
+        JCheckBox top = new JCheckBox("Top", (current & BorderGrid.TOP) != 0);
+        JCheckBox bottom = new JCheckBox("Bottom", (current & BorderGrid.BOTTOM) != 0);
+        JCheckBox left = new JCheckBox("Left", (current & BorderGrid.LEFT) != 0);
+        JCheckBox right = new JCheckBox("Right", (current & BorderGrid.RIGHT) != 0);
         
         // Style the checkboxes
         Font checkFont = new Font("Segoe UI", Font.PLAIN, 14);
@@ -219,15 +211,11 @@ public class BorderDesignerApp extends JFrame {
                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
 
         if (result == JOptionPane.OK_OPTION) {
-            int t = top.isSelected() ? 1 : 0;
-            int b = bottom.isSelected() ? 1 : 0;
-            int l = left.isSelected() ? 1 : 0;
-            int r = right.isSelected() ? 1 : 0;
-
-            MatteBorder newBorder = new MatteBorder(t, l, b, r, new Color(100, 100, 100));
+            int sides = BorderGrid.sides(top.isSelected(), left.isSelected(),
+                    bottom.isSelected(), right.isSelected());
 
             for (Point p : selections) {
-                _cellBorders.put(p, newBorder);
+                _setSides(p, sides);
             }
             
             if (isHeader) {
@@ -246,9 +234,7 @@ public class BorderDesignerApp extends JFrame {
         
         if (selection == null) return;
 
-        _copiedBorder = _cellBorders.getOrDefault(selection,
-                isHeader ? new MatteBorder(0, 0, 2, 0, new Color(40, 80, 130)) : 
-                           new MatteBorder(0, 0, 0, 0, new Color(100, 100, 100)));
+        _copiedBorder = _getSides(selection);
         
         JOptionPane.showMessageDialog(this, "Borders copied from " + 
                 (isHeader ? "header column " + (selection.y + 1) : "cell (" + selection.x + "," + selection.y + ")"));
@@ -268,7 +254,7 @@ public class BorderDesignerApp extends JFrame {
         if (selections == null || selections.length == 0) return;
 
         for (Point p : selections) {
-            _cellBorders.put(p, _copiedBorder);
+            _setSides(p, _copiedBorder);
         }
         
         if (isHeader) {
@@ -278,6 +264,19 @@ public class BorderDesignerApp extends JFrame {
         }
     }
     
+    /** Border sides of a cell or header (row = -1), headers default to their bottom line */
+    private int _getSides(Point p) {
+        if (p.x < 0 && !_cellBorders.isSet(0, p.y)) {
+            return BorderGrid.BOTTOM;
+        }
+        return _cellBorders.getSides(p.x + 1, p.y);
+    }
+    
+    /** Store the border sides of a cell or header (row = -1) */
+    private void _setSides(Point p, int sides) {
+        _cellBorders.set(p.x + 1, p.y, sides);
+    }
+    
     /** Check if the context is for headers (vs regular cells) */
     private boolean _isHeaderContext() {
         // If the header has a selected column, assume we're working with headers
@@ -332,7 +331,7 @@ public class BorderDesignerApp extends JFrame {
     
     /** Reset the entire application */
     private void _reset() {
-        _cellBorders.clear();
+        _cellBorders.reset(0, 0);
         _rowInput.setText("6");
         _colInput.setText("6");
         _tablePanel.removeAll();
@@ -341,9 +340,10 @@ public class BorderDesignerApp extends JFrame {
         JOptionPane.showMessageDialog(this, "Application reset");
     }
 
-    /** BorderItem class to hold border data */
+    /** BorderItem class to hold border data, as text lines or in the BorderCodec binary form */
     public static class BorderItem {
         private List<String> _borderData = new ArrayList<>();
+        private byte[] _binaryData; // used instead of the text lines when set
         
         public BorderItem() {}
         
@@ -353,12 +353,143 @@ public class BorderDesignerApp extends JFrame {
         
         public void setBorderData(List<String> borderData) {
             _borderData = borderData;
+            _binaryData = null;
+        }
+        
+        public byte[] getBinaryData() {
+            return _binaryData;
+        }
+        
+        public void setBinaryData(byte[] binaryData) {
+            _binaryData = binaryData;
+            _borderData = new ArrayList<>();
+        }
+        
+        public boolean isBinary() {
+            return _binaryData != null;
+        }
+        
+        public boolean isEmpty() {
+            return _binaryData == null ? _borderData == null || _borderData.isEmpty() : _binaryData.length == 0;
+        }
+        
+        /**
+         * Load the item into a grid whose row 0 holds the headers (row = -1).
+         * Text items without a DIMENSIONS line keep the grid size.
+         * @return the stored header names, empty if there are none
+         * @throws IllegalArgumentException if the data is malformed
+         */
+        public String[] readInto(BorderGrid grid) {
+            if (_binaryData != null) {
+                return BorderCodec.decode(_binaryData, grid);
+            }
+            grid.clear();
+            BorderTextParser parser = new BorderTextParser(grid);
+            for (String line : _borderData) {
+                parser.parseLine(line);
+            }
+            return new String[0];
+        }
+        
+        /**
+         * Text item for a grid whose row 0 holds the headers.
+         * Borders are written as rectangles of identical cells, so the size of the item follows
+         * the number of edits rather than the number of cells.
+         */
+        public static BorderItem text(BorderGrid grid) {
+            List<String> borderData = new ArrayList<>();
+            borderData.add("DIMENSIONS:" + Math.max(grid.getRowCount() - 1, 0) + ":" + grid.getColumnCount());
+            
+            // Save all borders (including headers with row = -1).
+            // Runs of equal cells in a row are merged with the same run in the rows above.
+            int cols = grid.getColumnCount();
+            int[] open = new int[cols * 4];   // open rectangles: fromRow, fromCol, toCol, value
+            int[] next = new int[cols * 4];
+            int openCount = 0;
+            for (int row = 0; row <= grid.getRowCount(); row++) {
+                int nextCount = 0;
+                int index = 0; // next open rectangle to match, both lists are ordered by column
+                int col = 0;
+                while (row < grid.getRowCount() && col < cols) {
+                    int value = grid.get(row, col);
+                    int fromCol = col;
+                    while (col < cols && grid.get(row, col) == value) col++;
+                    if ((value & BorderGrid.SET) == 0) continue;
+                    
+                    while (index < openCount && open[index + 1] < fromCol) {
+                        _addRange(borderData, open, index, row - 1);
+                        index += 4;
+                    }
+                    if (index < openCount && open[index + 1] == fromCol && open[index + 2] == col - 1
+                            && open[index + 3] == value) {
+                        System.arraycopy(open, index, next, nextCount, 4);
+                        index += 4;
+                    } else {
+                        next[nextCount] = row;
+                        next[nextCount + 1] = fromCol;
+                        next[nextCount + 2] = col - 1;
+                        next[nextCount + 3] = value;
+                    }
+                    nextCount += 4;
+                }
+                for (; index < openCount; index += 4) {
+                    _addRange(borderData, open, index, row - 1);
+                }
+                int[] swap = open;
+                open = next;
+                next = swap;
+                openCount = nextCount;
+            }
+            
+            BorderItem item = new BorderItem();
+            item.setBorderData(borderData);
+            return item;
+        }
+        
+        /** Add the open rectangle at index, ending at the given grid row */
+        private static void _addRange(List<String> borderData, int[] open, int index, int toRow) {
+            int sides = open[index + 3];
+            
+            // Format: row1-row2:col1-col2:top:right:bottom:left, a single row or column is written alone
+            String borderStr = _range(open[index] - 1, toRow - 1) + ":" + _range(open[index + 1], open[index + 2]) + ":" +
+                              ((sides & BorderGrid.TOP) != 0 ? 1 : 0) + ":" +
+                              ((sides & BorderGrid.RIGHT) != 0 ? 1 : 0) + ":" + 
+                              ((sides & BorderGrid.BOTTOM) != 0 ? 1 : 0) + ":" +
+                              ((sides & BorderGrid.LEFT) != 0 ? 1 : 0);
+            borderData.add(borderStr);
+        }
+        
+        private static String _range(int from, int to) {
+            return from == to ? String.valueOf(from) : from + "-" + to;
+        }
+        
+        /** Binary item for a grid whose row 0 holds the headers */
+        public static BorderItem binary(BorderGrid grid, String[] headers) {
+            BorderItem item = new BorderItem();
+            item.setBinaryData(BorderCodec.encode(grid, headers));
+            return item;
+        }
+        
+        /** Same borders in the text form */
+        public BorderItem toText() {
+            if (!isBinary()) return this;
+            BorderGrid grid = new BorderGrid(0, 0);
+            readInto(grid);
+            return text(grid);
+        }
+        
+        /** Same borders in the binary form */
+        public BorderItem toBinary() {
+            if (isBinary()) return this;
+            BorderGrid grid = new BorderGrid(0, 0);
+            String[] headers = readInto(grid);
+            return binary(grid, headers);
         }
     }
     
     /** Refresh the panel from the current item */
     private void _refresh() {
-        if (_currentItem == null || _currentItem.getBorderData() == null || _currentItem.getBorderData().isEmpty()) {
+        if (_currentItem == null || _currentItem.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No item data to refresh from!");
             return;
         }
@@ -367,77 +498,50 @@ public class BorderDesignerApp extends JFrame {
         JOptionPane.showMessageDialog(this, "Panel refreshed from item");
     }
     
-    /** Apply the current panel state to the item */
+    /** Apply the current panel state to the item, kept in the compact binary form */
     private void _apply() {
-        _currentItem = _saveItem();
+        _currentItem = _table != null ? BorderItem.binary(_cellBorders, _getHeaderNames()) : _saveItem();
         JOptionPane.showMessageDialog(this, "Panel state applied to item");
     }
     
     /** Save the current border configuration to a BorderItem */
     private BorderItem _saveItem() {
-        BorderItem item = new BorderItem();
-        List<String> borderData = new ArrayList<>();
-        
-        // Save table dimensions
-        if (_table != null) {
-            borderData.add("DIMENSIONS:" + _table.getRowCount() + ":" + _table.getColumnCount());
-        } else {
+        if (_table == null) {
+            BorderItem item = new BorderItem();
+            List<String> borderData = new ArrayList<>();
             borderData.add("DIMENSIONS:" + _rowInput.getText() + ":" + _colInput.getText());
+            item.setBorderData(borderData);
+            return item;
         }
-        
-        // Save all borders (including headers with row = -1)
-        for (Map.Entry<Point, MatteBorder> entry : _cellBorders.entrySet()) {
-            Point p = entry.getKey();
-            MatteBorder border = entry.getValue();
-            Insets insets = border.getBorderInsets();
-            
-            // Format: row:col:top:right:bottom:left
-            String borderStr = p.x + ":" + p.y + ":" + 
-                              insets.top + ":" + insets.right + ":" + 
-                              insets.bottom + ":" + insets.left;
-            borderData.add(borderStr);
-        }
-        
-        item.setBorderData(borderData);
-        return item;
+        return BorderItem.text(_cellBorders);
     }
     
     /** Load border configuration from a BorderItem */
     private void _loadItem(BorderItem item) {
-        if (item == null || item.getBorderData() == null || item.getBorderData().isEmpty()) {
+        if (item == null || item.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No valid item to load!");
             return;
         }
         
-        _cellBorders.clear();
-        List<String> data = item.getBorderData();
-        int rows = 0;
-        int cols = 0;
-        
-        for (String line : data) {
-            if (line.startsWith("DIMENSIONS:")) {
-                // Parse dimensions
-                String[] parts = line.split(":");
-                rows = Integer.parseInt(parts[1]);
-                cols = Integer.parseInt(parts[2]);
-                
-                // Update UI with dimensions
-                _rowInput.setText(String.valueOf(rows));
-                _colInput.setText(String.valueOf(cols));
-                _createTable(null);
-            } else {
-                // Parse border data: row:col:top:right:bottom:left
-                String[] parts = line.split(":");
-                int row = Integer.parseInt(parts[0]);
-                int col = Integer.parseInt(parts[1]);
-                int top = Integer.parseInt(parts[2]);
-                int right = Integer.parseInt(parts[3]);
-                int bottom = Integer.parseInt(parts[4]);
-                int left = Integer.parseInt(parts[5]);
-                
-                // Create border and store it
-                MatteBorder border = new MatteBorder(top, left, bottom, right, new Color(100, 100, 100));
-                _cellBorders.put(new Point(row, col), border);
+        String[] headers;
+        try {
+            headers = item.readInto(_cellBorders);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid item data: " + ex.getMessage());
+            return;
+        }
+        int rows = _cellBorders.getRowCount() - 1;
+        int cols = _cellBorders.getColumnCount();
+        
+        if (rows > 0 && cols > 0) {
+            // Update UI with dimensions
+            _rowInput.setText(String.valueOf(rows));
+            _colInput.setText(String.valueOf(cols));
+            _buildTable(rows, cols);
+            if (headers.length == cols) {
+                for (int i = 0; i < cols; i++) {
+                    _table.getColumnModel().getColumn(i).setHeaderValue(headers[i]);
+                }
             }
         }
         
@@ -447,8 +551,17 @@ public class BorderDesignerApp extends JFrame {
         }
     }
     
+    /** Header names of the table columns */
+    private String[] _getHeaderNames() {
+        String[] headers = new String[_table.getColumnCount()];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = String.valueOf(_table.getColumnModel().getColumn(i).getHeaderValue());
+        }
+        return headers;
+    }
+    
     /** Show a dialog to save data to a text area */
-    private void _saveItem() {
+    private void _showSaveDialog() {
         BorderItem item = _saveItem();
         JTextArea textArea = new JTextArea(String.join("\n", item.getBorderData()), 20, 30);
         textArea.setFont(new Font("Consolas", Font.PLAIN, 12));
@@ -461,7 +574,7 @@ public class BorderDesignerApp extends JFrame {
     }
     
     /** Show a dialog to load data from a text area */
-    private void _loadItem() {
+    private void _showLoadDialog() {
         JTextArea textArea = new JTextArea(20, 30);
         textArea.setFont(new Font("Consolas", Font.PLAIN, 12));
         textArea.setBorder(new EmptyBorder(10, 10, 10, 10));
@@ -477,16 +590,16 @@ public class BorderDesignerApp extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             String text = textArea.getText();
             if (!text.trim().isEmpty()) {
-                String[] lines = text.split("\n");
-                List<String> data = new ArrayList<>();
-                for (String line : lines) {
-                    if (!line.trim().isEmpty()) {
-                        data.add(line.trim());
-                    }
+                // Parse straight into a grid of the current size (the text may omit DIMENSIONS)
+                BorderGrid grid = new BorderGrid(_cellBorders.getRowCount(), _cellBorders.getColumnCount());
+                try {
+                    new BorderTextParser(grid).parse(text);
+                } catch (BorderTextParser.ParseException ex) {
+                    JOptionPane.showMessageDialog(this, ex.getMessage(), "Invalid Data", JOptionPane.ERROR_MESSAGE);
+                    return;
                 }
                 
-                BorderItem item = new BorderItem();
-                item.setBorderData(data);
+                BorderItem item = BorderItem.binary(grid, new String[0]);
                 _currentItem = item;
                 _loadItem(item);
                 JOptionPane.showMessageDialog(this, "Item loaded and set as current");
@@ -0,0 +1,168 @@
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ordered row or column header names with a hash index, so duplicate checks and
+ * generating the next free "prefix n" name take O(1) amortized instead of scanning the list.
+ * <p>
+ * Generated names ("Row 1", "Row 2", ...) are indexed by their suffix in a BitSet, which keeps
+ * a table with a million default headers cheap. Any other name is counted in a HashMap.
+ * <p>
+ * Names live in slots reached through an IndexMap, so inserting or removing a header is O(log n).
+ * The default names added by fill are not stored: their slots are numbered in order and the
+ * name is computed from the slot until someone renames it, so only edited names cost memory.
+ */
+public class HeaderRegistry {
+
+    private final String _prefix;
+    private final IndexMap _order = new IndexMap(0);                // index = row or column number -> slot
+    private final Map<Integer, String> _stored = new HashMap<>();   // slot -> name, unless computed
+    private int _nextSlot;
+    private int _generatedFrom;   // slots of fill: _generatedFrom + n - 1 is named prefix + n
+    private int _generatedCount;
+    private final BitSet _suffixes = new BitSet();                  // suffixes of generated-style names in use
+    private final Map<String, Integer> _counts = new HashMap<>();   // every other name -> occurrences
+    private int _nextFree = 1; // no suffix below this is free
+
+    /** @param prefix text before the number of generated names, e.g. "Row " */
+    public HeaderRegistry(String prefix) {
+        _prefix = prefix;
+    }
+
+    public int size() {
+        return _order.size();
+    }
+
+    public String get(int index) {
+        return _name(_order.get(index));
+    }
+
+    public void clear() {
+        _order.reset(0);
+        _stored.clear();
+        _nextSlot = 0;
+        _generatedFrom = 0;
+        _generatedCount = 0;
+        _suffixes.clear();
+        _counts.clear();
+        _nextFree = 1;
+    }
+
+    public void add(String name) {
+        add(size(), name);
+    }
+
+    public void add(int index, String name) {
+        int slot = _nextSlot++;
+        _order.insert(index, slot);
+        _stored.put(slot, name);
+        _index(name);
+    }
+
+    /**
+     * Append the generated names prefix + 1 to prefix + count without storing them.
+     * @throws IllegalStateException if generated-style names are already in use
+     */
+    public void fill(int count) {
+        if (count <= 0) return;
+        if (_generatedCount > 0 || _suffixes.nextSetBit(1) >= 0) {
+            throw new IllegalStateException("Generated names are already in use");
+        }
+        _generatedFrom = _nextSlot;
+        _generatedCount = count;
+        for (int i = 0; i < count; i++) {
+            _order.insert(size(), _nextSlot++);
+        }
+        _suffixes.set(1, count + 1);
+        _nextFree = count + 1;
+    }
+
+    public void set(int index, String name) {
+        int slot = _order.get(index);
+        _unindex(_name(slot));
+        _stored.put(slot, name);
+        _index(name);
+    }
+
+    public String remove(int index) {
+        int slot = _order.remove(index);
+        String name = _name(slot);
+        _stored.remove(slot);
+        _unindex(name);
+        return name;
+    }
+
+    public boolean contains(String name) {
+        int suffix = _suffix(name);
+        return (suffix > 0 && _suffixes.get(suffix)) || _counts.containsKey(name);
+    }
+
+    /** True if the name is used by any header other than the one at the given index */
+    public boolean isDuplicate(String name, int index) {
+        int suffix = _suffix(name);
+        int count = _counts.getOrDefault(name, 0);
+        if (suffix > 0 && _suffixes.get(suffix)) count++;
+        if (index >= 0 && index < size() && name.equals(get(index))) {
+            count--;
+        }
+        return count > 0;
+    }
+
+    /** Lowest "prefix n" name not in use */
+    public String nextName() {
+        _nextFree = _suffixes.nextClearBit(_nextFree);
+        return _prefix + _nextFree;
+    }
+
+    private String _name(int slot) {
+        String name = _stored.get(slot);
+        if (name == null && slot >= _generatedFrom && slot < _generatedFrom + _generatedCount) {
+            return _prefix + (slot - _generatedFrom + 1);
+        }
+        return name;
+    }
+
+    private void _index(String name) {
+        int suffix = _suffix(name);
+        if (suffix > 0 && !_suffixes.get(suffix)) {
+            _suffixes.set(suffix);
+        } else {
+            // plain names, and the rare second copy of a generated name
+            _counts.merge(name, 1, Integer::sum);
+        }
+    }
+
+    private void _unindex(String name) {
+        Integer count = _counts.get(name);
+        if (count != null) {
+            if (count == 1) {
+                _counts.remove(name);
+            } else {
+                _counts.put(name, count - 1);
+            }
+            return;
+        }
+        int suffix = _suffix(name);
+        if (suffix > 0) {
+            _suffixes.clear(suffix);
+            if (suffix < _nextFree) _nextFree = suffix;
+        }
+    }
+
+    /** Number n of a name spelled exactly prefix + n, otherwise 0 */
+    private int _suffix(String name) {
+        int length = name.length();
+        int start = _prefix.length();
+        if (length == start || length - start > 9 || !name.startsWith(_prefix) || name.charAt(start) == '0') {
+            return 0;
+        }
+        int suffix = 0;
+        for (int i = start; i < length; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') return 0;
+            suffix = suffix * 10 + (c - '0');
+        }
+        return suffix;
+    }
+}
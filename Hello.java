@@ -13,6 +13,7 @@ public class BorderDesignerApp extends JFrame {
     private Map<Point, BorderAttributes> _borderMap = new HashMap<>();
     private BorderAttributes _copiedBorder;
     private JCheckBox _groupingSeparatorCheckBox;
+    private final CustomCellRenderer _cellRenderer = new CustomCellRenderer();
 
     public BorderDesignerApp() {
         setTitle("Border Designer");
@@ -24,7 +25,7 @@ public class BorderDesignerApp extends JFrame {
         _table = new JTable(_model) {
             @Override
             public TableCellRenderer getCellRenderer(int row, int column) {
-                return new CustomCellRenderer();
+                return _cellRenderer;
             }
         };
         _table.setCellSelectionEnabled(true);
@@ -139,9 +140,22 @@ public class BorderDesignerApp extends JFrame {
     }
 
     // === Renderer ===
+    // One instance is shared by all cells; borders come from a cache indexed by BorderAttributes.pattern()
     private class CustomCellRenderer extends JLabel implements TableCellRenderer {
+        private final Border[] _borders = new Border[16];
+        private final Color _selectedBackground = new Color(200, 200, 255);
+        private final Point _lookup = new Point();
+
         public CustomCellRenderer() {
             setOpaque(true);
+            for (int pattern = 0; pattern < _borders.length; pattern++) {
+                _borders[pattern] = BorderFactory.createMatteBorder(
+                        (pattern & BorderAttributes.TOP) != 0 ? 1 : 0,
+                        (pattern & BorderAttributes.LEFT) != 0 ? 1 : 0,
+                        (pattern & BorderAttributes.BOTTOM) != 0 ? 1 : 0,
+                        (pattern & BorderAttributes.RIGHT) != 0 ? 1 : 0,
+                        Color.BLACK);
+            }
         }
 
         @Override
@@ -150,18 +164,12 @@ public class BorderDesignerApp extends JFrame {
                                                        int row, int column) {
             setText(value == null ? "" : value.toString());
 
-            BorderAttributes attrs = _borderMap.get(new Point(row, column));
-            if (attrs == null) attrs = new BorderAttributes(false, false, false, false);
-
-            int top = attrs.top ? 1 : 0;
-            int bottom = attrs.bottom ? 1 : 0;
-            int left = attrs.left ? 1 : 0;
-            int right = attrs.right ? 1 : 0;
-
-            setBorder(BorderFactory.createMatteBorder(top, left, bottom, right, Color.BLACK));
+            _lookup.setLocation(row, column);
+            BorderAttributes attrs = _borderMap.get(_lookup);
+            setBorder(_borders[attrs == null ? 0 : attrs.pattern()]);
 
             if (isSelected) {
-                setBackground(new Color(200, 200, 255));
+                setBackground(_selectedBackground);
             } else {
                 setBackground(Color.WHITE);
             }
@@ -171,12 +179,19 @@ public class BorderDesignerApp extends JFrame {
 
     // === Border Attributes ===
     private static class BorderAttributes implements Cloneable {
+        static final int TOP = 1, BOTTOM = 2, LEFT = 4, RIGHT = 8;
+
         boolean top, bottom, left, right;
 
         BorderAttributes(boolean t, boolean b, boolean l, boolean r) {
             top = t; bottom = b; left = l; right = r;
         }
 
+        // 4-bit key of the set sides
+        int pattern() {
+            return (top ? TOP : 0) | (bottom ? BOTTOM : 0) | (left ? LEFT : 0) | (right ? RIGHT : 0);
+        }
+
         @Override
         protected BorderAttributes clone() {
             return new BorderAttributes(top, bottom, left, right);
@@ -0,0 +1,197 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Renders many report configurations to HTML concurrently, one file per configuration.
+ * <p>
+ * Reports run on a fixed pool and at most twice as many as there are threads are
+ * submitted at once, so a large batch never has more than that many row sources and
+ * buffers alive. Each report streams through HtmlTableWriter, so its size does not matter.
+ */
+public class HtmlBatchExporter {
+
+    /** One report: its name (also the file name), its borders and its rows */
+    public static final class Job {
+        private final String _name;
+        private final BorderGrid _borders;
+        private final Iterable<? extends Object[]> _rows;
+
+        /**
+         * @param borders designer borders, may be null; read concurrently so it must not change during the export
+         * @param rows    body rows in report column order, read once
+         */
+        public Job(String name, BorderGrid borders, Iterable<? extends Object[]> rows) {
+            _name = name;
+            _borders = borders;
+            _rows = rows;
+        }
+
+        public String getName() {
+            return _name;
+        }
+    }
+
+    /** Outcome of one job */
+    public static final class Result {
+        private final String _name;
+        private final Path _file;
+        private final int _rows;
+        private final long _nanos;
+        private final Exception _error;
+
+        Result(String name, Path file, int rows, long nanos, Exception error) {
+            _name = name;
+            _file = file;
+            _rows = rows;
+            _nanos = nanos;
+            _error = error;
+        }
+
+        public String getName() {
+            return _name;
+        }
+
+        public Path getFile() {
+            return _file;
+        }
+
+        public int getRowCount() {
+            return _rows;
+        }
+
+        public long getMillis() {
+            return _nanos / 1_000_000;
+        }
+
+        /** Failure of the job, null if it succeeded */
+        public Exception getError() {
+            return _error;
+        }
+
+        @Override
+        public String toString() {
+            return _name + ": " + (_error == null ? _rows + " rows" : "failed (" + _error.getMessage() + ")")
+                    + " in " + getMillis() + " ms -> " + _file;
+        }
+    }
+
+    private final Path _directory;
+    private final int _threads;
+
+    /**
+     * @param directory where the files are written, one per job named after it
+     * @param threads   reports rendered at the same time
+     */
+    public HtmlBatchExporter(Path directory, int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("Invalid thread count " + threads);
+        _directory = directory;
+        _threads = threads;
+    }
+
+    /**
+     * Render every job and wait for all of them.
+     * A failing job does not stop the others; its error is in its result.
+     * Jobs whose names map to the same file name get a numbered suffix, so no two write the same file.
+     * @return one result per job, in the order of the jobs
+     */
+    public List<Result> export(Collection<Job> jobs) throws IOException, InterruptedException {
+        Files.createDirectories(_directory);
+        ExecutorService pool = Executors.newFixedThreadPool(_threads);
+        Semaphore inFlight = new Semaphore(2 * _threads);
+        List<Future<Result>> futures = new ArrayList<>(jobs.size());
+        Set<String> used = new HashSet<>();
+        try {
+            for (Job job : jobs) {
+                Path file = _directory.resolve(_uniqueFileName(job.getName(), used) + ".html");
+                inFlight.acquire(); // back-pressure: wait for a slot before submitting more
+                futures.add(pool.submit(() -> {
+                    try {
+                        return _export(job, file);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            List<Result> results = new ArrayList<>(futures.size());
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Export task failed", e.getCause()); // _export catches its errors
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** One line per job and the total, for logging */
+    public static String summary(List<Result> results) {
+        StringBuilder summary = new StringBuilder();
+        long millis = 0;
+        int failed = 0;
+        for (Result result : results) {
+            summary.append(result).append('\n');
+            millis += result.getMillis();
+            if (result.getError() != null) failed++;
+        }
+        summary.append(results.size()).append(" reports, ").append(failed).append(" failed, ")
+                .append(millis).append(" ms of rendering");
+        return summary.toString();
+    }
+
+    private Result _export(Job job, Path file) {
+        long start = System.nanoTime();
+        int rows = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            HtmlTableWriter writer = new HtmlTableWriter(out); // buffers internally
+            writer.setBorders(job._borders);
+            writer.writeHead();
+            for (Object[] row : job._rows) {
+                writer.writeRow(row);
+                rows++;
+            }
+            writer.finish();
+        } catch (Exception e) {
+            return new Result(job.getName(), file, rows, System.nanoTime() - start, e);
+        }
+        return new Result(job.getName(), file, rows, System.nanoTime() - start, null);
+    }
+
+    /**
+     * File name of a job not yet in used, which it is added to. Names are compared ignoring case,
+     * since "a" and "A" are the same file on some file systems.
+     */
+    private static String _uniqueFileName(String name, Set<String> used) {
+        String fileName = _fileName(name);
+        String unique = fileName;
+        for (int i = 2; !used.add(unique.toLowerCase(Locale.ROOT)); i++) {
+            unique = fileName + "_" + i;
+        }
+        return unique;
+    }
+
+    /** Name with everything but letters, digits, '.', '-' and '_' replaced */
+    private static String _fileName(String name) {
+        StringBuilder fileName = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            fileName.append(Character.isLetterOrDigit(c) || c == '.' || c == '-' || c == '_' ? c : '_');
+        }
+        return fileName.length() == 0 ? "_" : fileName.toString();
+    }
+}
@@ -0,0 +1,287 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams the Mobilis correction report as an HTML table.
+ * The head, style block and header cells are written first, then every body row is written
+ * as soon as it is passed in, so the report is never held in memory as one String.
+ * <p>
+ * The markup comes from templates compiled once per class, so a report is a sequence of
+ * writes of ready-made segments. On an OutputStream those segments are already UTF-8 bytes
+ * and cell text is encoded straight into an internal buffer.
+ * <p>
+ * Borders designed in the border manager are exported as one CSS class per distinct border
+ * pattern in the style block, referenced from each cell, instead of inline styles per cell.
+ * <p>
+ * Usage: writeHead(), writeRow(...) for every row, then finish().
+ */
+public class HtmlTableWriter {
+
+    public static final String[] COLUMNS = {
+            "Ex Date", "OST Type", "Strategy code", "Methodology", "R Factor", "New MDS code", "Component"
+    };
+
+    private static final String TITLE = "Please correct the following rows before they can be sent to Mobilis:";
+
+    private static final String STYLE = "body{font-family:Arial,Helvetica,sans-serif;color:#000;margin:0;padding:15px;}"
+            // Title bar
+            + "h2{background:#2596be;color:#fff;padding:10px;margin:0 0 12px 0;"
+            + "font-size:16px;font-weight:normal;}"
+            // Table
+            + "table{border-collapse:collapse;width:100%;font-size:14px;}"
+            // Header cells
+            + "th{background:#2596be;color:#ffffff;padding:8px;text-align:left;"
+            + "font-weight:normal;border:1px solid #999;}"
+            // Body cells
+            + "td{background:#c0c0c0;color:#000000;padding:8px;text-align:left;"
+            + "font-weight:normal;border:1px solid #999;}";
+
+    /** Whole document: border classes, then a class slot per header cell, then the rows in the body slot */
+    private static final HtmlTemplate REPORT = HtmlTemplate.compile("<html><head><style>" + STYLE
+            + "{{borderStyles}}</style></head><body><h2>" + TITLE + "</h2><table><thead><tr>" + _headerCells()
+            + "</tr></thead><tbody>{{body}}</tbody></table></body></html>");
+    private static final int BORDER_STYLES = REPORT.indexOf("borderStyles");
+    private static final int BODY = REPORT.indexOf("body");
+
+    /** One body row, a class slot and a value slot per column */
+    private static final HtmlTemplate ROW = HtmlTemplate.compile(_rowCells());
+
+    // per border pattern (BorderGrid sides): CSS rule and class attribute, as text and UTF-8
+    private static final String[] BORDER_RULES = new String[BorderGrid.SIDES + 1];
+    private static final byte[][] BORDER_RULE_BYTES = new byte[BorderGrid.SIDES + 1][];
+    private static final String[] BORDER_CLASSES = new String[BorderGrid.SIDES + 1];
+    private static final byte[][] BORDER_CLASS_BYTES = new byte[BorderGrid.SIDES + 1][];
+
+    static {
+        for (int sides = 0; sides <= BorderGrid.SIDES; sides++) {
+            BORDER_RULES[sides] = ".b" + sides + "{border-style:solid;border-color:#000;border-width:"
+                    + _width(sides, BorderGrid.TOP) + " " + _width(sides, BorderGrid.RIGHT) + " "
+                    + _width(sides, BorderGrid.BOTTOM) + " " + _width(sides, BorderGrid.LEFT) + ";}";
+            BORDER_CLASSES[sides] = " class=\"b" + sides + "\"";
+            BORDER_RULE_BYTES[sides] = BORDER_RULES[sides].getBytes(StandardCharsets.UTF_8);
+            BORDER_CLASS_BYTES[sides] = BORDER_CLASSES[sides].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer _writer;       // character destination, null when writing bytes
+    private final OutputStream _stream; // byte destination, null when writing characters
+    private final byte[] _buffer;
+    private int _count;
+
+    private BorderGrid _borders;
+    private int _row; // grid row of the next body row
+
+    private boolean _started;
+    private boolean _finished;
+
+    /** @param out destination, best buffered since rows are written in small pieces */
+    public HtmlTableWriter(Writer out) {
+        _writer = out;
+        _stream = null;
+        _buffer = null;
+    }
+
+    /** Write UTF-8 to a stream through an internal buffer */
+    public HtmlTableWriter(OutputStream out) {
+        _writer = null;
+        _stream = out;
+        _buffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Draw the cells with borders from the border manager; call before writeHead.
+     * The grid is laid out like the designer table: row 0 holds the column headers and column 0
+     * the row headers, so report column i is grid column i + 1 and body row r is grid row r + 1.
+     */
+    public void setBorders(BorderGrid borders) {
+        if (_started) throw new IllegalStateException("Borders must be set before writeHead");
+        _borders = borders;
+    }
+
+    /** Write everything up to the first body row */
+    public void writeHead() throws IOException {
+        if (_started) throw new IllegalStateException("Head already written");
+        _started = true;
+        for (int slot = 0; slot < BODY; slot++) {
+            _writeSegment(REPORT, slot);
+            if (slot == BORDER_STYLES) {
+                _writeBorderStyles();
+            } else {
+                _writeBorderClass(0, slot - BORDER_STYLES - 1);
+            }
+        }
+        _writeSegment(REPORT, BODY);
+        _row = 1;
+    }
+
+    /** Write one body row; missing cells are left empty, null cells are written empty */
+    public void writeRow(Object... cells) throws IOException {
+        if (!_started || _finished) throw new IllegalStateException("Rows must be written between writeHead and finish");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            _writeSegment(ROW, 2 * i);
+            _writeBorderClass(_row, i);
+            _writeSegment(ROW, 2 * i + 1);
+            if (i < cells.length && cells[i] != null) {
+                _writeEscaped(cells[i].toString());
+            }
+        }
+        _writeSegment(ROW, 2 * COLUMNS.length);
+        _row++;
+    }
+
+    /** Close the table and document and flush; the destination itself is not closed */
+    public void finish() throws IOException {
+        if (!_started) writeHead();
+        if (_finished) return;
+        _finished = true;
+        for (int segment = BODY + 1; segment <= REPORT.getSlotCount(); segment++) {
+            _writeSegment(REPORT, segment);
+        }
+        if (_writer != null) {
+            _writer.flush();
+        } else {
+            _flushBuffer();
+            _stream.flush();
+        }
+    }
+
+    /** One CSS class per border pattern used by the cells the report can show */
+    private void _writeBorderStyles() throws IOException {
+        if (_borders == null) return;
+        int columns = Math.min(_borders.getColumnCount(), COLUMNS.length + 1);
+        int used = 0; // bit per pattern
+        for (int row = 0; row < _borders.getRowCount(); row++) {
+            for (int col = 1; col < columns; col++) {
+                int cell = _borders.get(row, col);
+                if ((cell & BorderGrid.SET) != 0) used |= 1 << (cell & BorderGrid.SIDES);
+            }
+        }
+        for (int sides = 0; sides <= BorderGrid.SIDES; sides++) {
+            if ((used & 1 << sides) != 0) _writeRaw(BORDER_RULES[sides], BORDER_RULE_BYTES[sides]);
+        }
+    }
+
+    /** Class attribute of a cell whose borders were set in the grid */
+    private void _writeBorderClass(int row, int column) throws IOException {
+        if (_borders == null) return;
+        int cell = _borders.get(row, column + 1);
+        if ((cell & BorderGrid.SET) != 0) {
+            int sides = cell & BorderGrid.SIDES;
+            _writeRaw(BORDER_CLASSES[sides], BORDER_CLASS_BYTES[sides]);
+        }
+    }
+
+    private void _writeSegment(HtmlTemplate template, int segment) throws IOException {
+        _writeRaw(template.getText(segment), template.getBytes(segment));
+    }
+
+    /** Write fixed markup, given as text and as its UTF-8 bytes */
+    private void _writeRaw(String text, byte[] bytes) throws IOException {
+        if (_writer != null) {
+            _writer.write(text);
+            return;
+        }
+        if (bytes.length > _buffer.length - _count) {
+            _flushBuffer();
+            if (bytes.length > _buffer.length) {
+                _stream.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, _buffer, _count, bytes.length);
+        _count += bytes.length;
+    }
+
+    /** Write text with the HTML special characters escaped */
+    private void _writeEscaped(String text) throws IOException {
+        if (_writer == null) {
+            _encodeEscaped(text);
+            return;
+        }
+        // copy unescaped runs in one call
+        int start = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            String entity = _entity(text.charAt(i));
+            if (entity == null) continue;
+            _writer.write(text, start, i - start);
+            _writer.write(entity);
+            start = i + 1;
+        }
+        _writer.write(text, start, text.length() - start);
+    }
+
+    /** UTF-8 encode escaped text straight into the buffer */
+    private void _encodeEscaped(String text) throws IOException {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            if (_buffer.length - _count < 6) _flushBuffer(); // longest entity or code point
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                String entity = _entity(c);
+                if (entity == null) {
+                    _buffer[_count++] = (byte) c;
+                } else {
+                    for (int j = 0; j < entity.length(); j++) {
+                        _buffer[_count++] = (byte) entity.charAt(j);
+                    }
+                }
+            } else if (c < 0x800) {
+                _buffer[_count++] = (byte) (0xC0 | c >> 6);
+                _buffer[_count++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                _buffer[_count++] = (byte) (0xF0 | codePoint >> 18);
+                _buffer[_count++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                _buffer[_count++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                _buffer[_count++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                _buffer[_count++] = '?'; // unpaired surrogate, as String.getBytes would
+            } else {
+                _buffer[_count++] = (byte) (0xE0 | c >> 12);
+                _buffer[_count++] = (byte) (0x80 | c >> 6 & 0x3F);
+                _buffer[_count++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private void _flushBuffer() throws IOException {
+        if (_count > 0) {
+            _stream.write(_buffer, 0, _count);
+            _count = 0;
+        }
+    }
+
+    private static String _entity(char c) {
+        switch (c) {
+            case '&': return "&amp;";
+            case '<': return "&lt;";
+            case '>': return "&gt;";
+            case '"': return "&quot;";
+            default: return null;
+        }
+    }
+
+    /** Header cells, compiled into the report template */
+    private static String _headerCells() {
+        StringBuilder cells = new StringBuilder();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            cells.append("<th{{class").append(i).append("}}>").append(COLUMNS[i]).append("</th>");
+        }
+        return cells.toString();
+    }
+
+    private static String _rowCells() {
+        StringBuilder cells = new StringBuilder("<tr>");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            cells.append("<td{{class").append(i).append("}}>{{").append(i).append("}}</td>");
+        }
+        return cells.append("</tr>").toString();
+    }
+
+    private static String _width(int sides, int side) {
+        return (sides & side) != 0 ? "1px" : "0";
+    }
+}
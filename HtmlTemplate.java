@@ -0,0 +1,77 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HTML template compiled once into fixed segments separated by named slots, written {{name}}.
+ * Every segment is kept as text and already encoded as UTF-8, so rendering is a sequence of
+ * buffer writes with no format string to parse and no markup to concatenate.
+ * <p>
+ * Segment i is followed by slot i; there is one more segment than there are slots.
+ */
+public final class HtmlTemplate {
+
+    private static final String SLOT_START = "{{";
+    private static final String SLOT_END = "}}";
+
+    private final String[] _texts;
+    private final byte[][] _bytes;
+    private final String[] _slots;
+
+    private HtmlTemplate(List<String> segments, List<String> slots) {
+        _texts = segments.toArray(new String[0]);
+        _slots = slots.toArray(new String[0]);
+        _bytes = new byte[_texts.length][];
+        for (int i = 0; i < _texts.length; i++) {
+            _bytes[i] = _texts[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Split a template at its {{name}} slots.
+     * @throws IllegalArgumentException if a slot is not closed
+     */
+    public static HtmlTemplate compile(String source) {
+        List<String> segments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = source.indexOf(SLOT_START, start)) >= 0) {
+            int close = source.indexOf(SLOT_END, open + SLOT_START.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed template slot at index " + open);
+            }
+            segments.add(source.substring(start, open));
+            slots.add(source.substring(open + SLOT_START.length(), close));
+            start = close + SLOT_END.length();
+        }
+        segments.add(source.substring(start));
+        return new HtmlTemplate(segments, slots);
+    }
+
+    public int getSlotCount() {
+        return _slots.length;
+    }
+
+    public String getSlotName(int slot) {
+        return _slots[slot];
+    }
+
+    /** Index of a named slot, -1 if the template has none */
+    public int indexOf(String slot) {
+        for (int i = 0; i < _slots.length; i++) {
+            if (_slots[i].equals(slot)) return i;
+        }
+        return -1;
+    }
+
+    /** Segment text, for character destinations */
+    public String getText(int segment) {
+        return _texts[segment];
+    }
+
+    /** UTF-8 bytes of a segment, shared: do not modify */
+    public byte[] getBytes(int segment) {
+        return _bytes[segment];
+    }
+}
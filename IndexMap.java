@@ -0,0 +1,208 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Logical-to-physical index map for BorderGrid rows and columns.
+ * Positions are kept in an implicit treap, so inserting or removing a logical index
+ * costs O(log n) instead of renumbering everything after it.
+ * Until the first insert or remove anywhere but at the end the map is the identity and lookups are free.
+ */
+final class IndexMap {
+
+    private final Random _random = new Random();
+
+    private int _size;
+    private boolean _identity = true;
+
+    // treap nodes, index 0 is the empty tree
+    private int _root;
+    private int[] _left = new int[1];
+    private int[] _right = new int[1];
+    private int[] _priority = new int[1];
+    private int[] _count = new int[1];
+    private int[] _value = new int[1];
+    private int _nodes;
+    private int _free;
+
+    // results of split()
+    private int _splitLeft;
+    private int _splitRight;
+
+    IndexMap(int size) {
+        reset(size);
+    }
+
+    /** Back to the identity map of the given size */
+    void reset(int size) {
+        _size = size;
+        _identity = true;
+        _root = 0;
+        _nodes = 0;
+        _free = 0;
+    }
+
+    int size() {
+        return _size;
+    }
+
+    boolean isIdentity() {
+        return _identity;
+    }
+
+    /** Physical index of a logical index */
+    int get(int index) {
+        if (_identity) return index;
+        int node = _root;
+        while (true) {
+            int leftCount = _count[_left[node]];
+            if (index < leftCount) {
+                node = _left[node];
+            } else if (index == leftCount) {
+                return _value[node];
+            } else {
+                index -= leftCount + 1;
+                node = _right[node];
+            }
+        }
+    }
+
+    /** Insert a physical index at the given logical position */
+    void insert(int index, int physical) {
+        if (_identity && index == _size && physical == _size) {
+            _size++; // appending the next index keeps the identity
+            return;
+        }
+        _materialize();
+        int node = _allocate(physical);
+        _split(_root, index);
+        int right = _splitRight;
+        _root = _merge(_merge(_splitLeft, node), right);
+        _size++;
+    }
+
+    /** Remove a logical position and return the physical index it mapped to */
+    int remove(int index) {
+        if (_identity && index == _size - 1) {
+            _size--;
+            return index;
+        }
+        _materialize();
+        _split(_root, index);
+        int left = _splitLeft;
+        _split(_splitRight, 1);
+        int node = _splitLeft;
+        _root = _merge(left, _splitRight);
+        _size--;
+        int physical = _value[node];
+        _left[node] = _free;
+        _free = node;
+        return physical;
+    }
+
+    /** Physical indexes in logical order */
+    int[] toArray() {
+        int[] result = new int[_size];
+        if (_identity) {
+            for (int i = 0; i < _size; i++) result[i] = i;
+            return result;
+        }
+        int[] stack = new int[64];
+        int depth = 0;
+        int node = _root;
+        int i = 0;
+        while (node != 0 || depth > 0) {
+            while (node != 0) {
+                if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+                stack[depth++] = node;
+                node = _left[node];
+            }
+            node = stack[--depth];
+            result[i++] = _value[node];
+            node = _right[node];
+        }
+        return result;
+    }
+
+    /** Turn the identity map into a treap, built in O(n) as a Cartesian tree */
+    private void _materialize() {
+        if (!_identity) return;
+        _identity = false;
+        _grow(_size + 16); // exact size plus room for a few inserts, instead of doubling node by node
+        int[] stack = new int[Math.max(_size, 1)];
+        int depth = 0;
+        for (int i = 0; i < _size; i++) {
+            int node = _allocate(i);
+            int last = 0;
+            while (depth > 0 && _priority[stack[depth - 1]] < _priority[node]) {
+                last = stack[--depth];
+                _update(last);
+            }
+            _left[node] = last;
+            if (depth > 0) _right[stack[depth - 1]] = node;
+            stack[depth++] = node;
+        }
+        for (int i = depth - 1; i >= 0; i--) _update(stack[i]);
+        _root = depth > 0 ? stack[0] : 0;
+    }
+
+    private int _allocate(int physical) {
+        int node;
+        if (_free != 0) {
+            node = _free;
+            _free = _left[node];
+        } else {
+            node = ++_nodes;
+            if (node == _value.length) _grow(node * 2);
+        }
+        _left[node] = 0;
+        _right[node] = 0;
+        _priority[node] = _random.nextInt();
+        _count[node] = 1;
+        _value[node] = physical;
+        return node;
+    }
+
+    private void _grow(int capacity) {
+        if (capacity <= _value.length) return;
+        _left = Arrays.copyOf(_left, capacity);
+        _right = Arrays.copyOf(_right, capacity);
+        _priority = Arrays.copyOf(_priority, capacity);
+        _count = Arrays.copyOf(_count, capacity);
+        _value = Arrays.copyOf(_value, capacity);
+    }
+
+    private void _update(int node) {
+        _count[node] = _count[_left[node]] + _count[_right[node]] + 1;
+    }
+
+    /** Split a tree into its first count nodes (_splitLeft) and the rest (_splitRight) */
+    private void _split(int node, int count) {
+        if (node == 0) {
+            _splitLeft = 0;
+            _splitRight = 0;
+        } else if (_count[_left[node]] >= count) {
+            _split(_left[node], count);
+            _left[node] = _splitRight;
+            _update(node);
+            _splitRight = node;
+        } else {
+            _split(_right[node], count - _count[_left[node]] - 1);
+            _right[node] = _splitLeft;
+            _update(node);
+            _splitLeft = node;
+        }
+    }
+
+    private int _merge(int left, int right) {
+        if (left == 0) return right;
+        if (right == 0) return left;
+        if (_priority[left] > _priority[right]) {
+            _right[left] = _merge(_right[left], right);
+            _update(left);
+            return left;
+        }
+        _left[right] = _merge(left, _left[right]);
+        _update(right);
+        return right;
+    }
+}
@@ -505,25 +505,13 @@ public class HtmlBorderManagerPanel extends ConfigurationItemPanel {
     }
 
     private void editBorders() {
-        int[] rows = _table.getSelectedRows();
-        int[] cols = _table.getSelectedColumns();
-        if (rows.length == 0 || cols.length == 0) return;
-        
-        // Filter only data cells (exclude headers)
-        java.util.List<Integer> dataRows = new java.util.ArrayList<>();
-        java.util.List<Integer> dataCols = new java.util.ArrayList<>();
-        
-        for (int row : rows) {
-            if (row > 0) dataRows.add(row);
-        }
-        for (int col : cols) {
-            if (col > 0) dataCols.add(col);
-        }
-        
-        if (dataRows.isEmpty() || dataCols.isEmpty()) return;
+        // Only data cells are edited: row 0 and column 0 hold the headers
+        ListSelectionModel rowSelection = _table.getSelectionModel();
+        ListSelectionModel colSelection = _table.getColumnModel().getSelectionModel();
+        int firstDataRow = firstSelected(rowSelection, 1);
+        int firstDataCol = firstSelected(colSelection, 1);
+        if (firstDataRow < 0 || firstDataCol < 0) return;
         
-        int firstDataRow = dataRows.get(0);
-        int firstDataCol = dataCols.get(0);
         Point first = new Point(firstDataRow - 1, firstDataCol - 1);
         MatteBorder current = _cellBorders.getOrDefault(first, new MatteBorder(0, 0, 0, 0, Color.BLACK));
         
@@ -562,8 +550,12 @@ public class HtmlBorderManagerPanel extends ConfigurationItemPanel {
             int r = right.isSelected() ? 1 : 0;
             
             MatteBorder newBorder = new MatteBorder(t, l, b, r, Color.BLACK);
-            for (int row : dataRows) {
-                for (int col : dataCols) {
+            int lastRow = rowSelection.getMaxSelectionIndex();
+            int lastCol = colSelection.getMaxSelectionIndex();
+            for (int row = firstDataRow; row <= lastRow; row++) {
+                if (!rowSelection.isSelectedIndex(row)) continue;
+                for (int col = firstDataCol; col <= lastCol; col++) {
+                    if (!colSelection.isSelectedIndex(col)) continue;
                     int storageRow = row - 1;
                     int storageCol = col - 1;
                     _cellBorders.put(new Point(storageRow, storageCol), newBorder);
@@ -573,6 +565,15 @@ public class HtmlBorderManagerPanel extends ConfigurationItemPanel {
         }
     }
 
+    /** First selected index at or after from, -1 if there is none */
+    private static int firstSelected(ListSelectionModel selection, int from) {
+        if (selection.isSelectionEmpty()) return -1;
+        for (int index = Math.max(from, selection.getMinSelectionIndex()); index <= selection.getMaxSelectionIndex(); index++) {
+            if (selection.isSelectedIndex(index)) return index;
+        }
+        return -1;
+    }
+
     private void copyBorders() {
         int row = _table.getSelectedRow();
         int col = _table.getSelectedColumn();
@@ -1,15 +1,16 @@
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.border.MatteBorder;
-import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
 import java.awt.*;
+import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.StringSelection;
+import java.awt.datatransfer.UnsupportedFlavorException;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.util.Arrays;
 
 public class HtmlBorderManagerPanel extends JPanel {
     private JTable _table;
@@ -22,11 +23,13 @@ public class HtmlBorderManagerPanel extends JPanel {
     private JButton _resetButton = new JButton("Reset");
     private JCheckBox _groupingSeparatorCheckbox = new JCheckBox("Grouping Separator");
     
-    private Map<Point, MatteBorder> _cellBorders = new HashMap<>();
-    private List<String> _rowHeaders = new ArrayList<>();      // index = row number
-    private List<String> _columnHeaders = new ArrayList<>();   // index = column number
-    private Map<Point, MatteBorder> _copiedBorders = new HashMap<>();
-    private Point _copyReferencePoint;
+    private BorderGrid _cellBorders = new BorderGrid(0, 0);
+    private HeaderRegistry _rowHeaders = new HeaderRegistry("Row ");         // index = row number
+    private HeaderRegistry _columnHeaders = new HeaderRegistry("Header ");   // index = column number
+    private BorderClip _copiedBorders;
+    private BorderCellRenderer _renderer;
+    private int _groupSize = 5; // data rows per group for the grouping separator
+    private BorderGrid _separatorCells = new BorderGrid(0, 0); // cells the grouping separator changed
 
     public HtmlBorderManagerPanel() {
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
@@ -59,18 +62,22 @@ public class HtmlBorderManagerPanel extends JPanel {
         _createButton.addActionListener(e -> createTableComponent());
         _cleanButton.addActionListener(e -> cleanBorders());
         _resetButton.addActionListener(e -> reset());
+        _groupingSeparatorCheckbox.addActionListener(e -> toggleGroupingSeparators());
     }
 
     private void cleanBorders() {
         _cellBorders.clear();
+        _separatorCells.clear();
+        _groupingSeparatorCheckbox.setSelected(false);
         if (_table != null) {
-            _table.repaint();
+            repaintCells(0, _tableModel.getRowCount() - 1, 0, _tableModel.getColumnCount() - 1);
         }
     }
 
     private void reset() {
-        _cellBorders.clear();
-        _copiedBorders.clear();
+        _cellBorders.reset(0, 0);
+        _separatorCells.reset(0, 0);
+        _copiedBorders = null;
         _rowHeaders.clear();
         _columnHeaders.clear();
         _rowInput.setText("");
@@ -79,7 +86,6 @@ public class HtmlBorderManagerPanel extends JPanel {
         _tablePanel.removeAll();
         _tablePanel.revalidate();
         _tablePanel.repaint();
-        _copyReferencePoint = null;
     }
 
     private void createTableComponent() {
@@ -92,42 +98,26 @@ public class HtmlBorderManagerPanel extends JPanel {
             JOptionPane.showMessageDialog(this, "Please enter valid positive integers!");
             return;
         }
-        _cellBorders.clear();
+        _cellBorders.reset(rows + 1, cols + 1);
+        _separatorCells.reset(rows + 1, cols + 1);
+        _groupingSeparatorCheckbox.setSelected(false);
         createTable(rows, cols);
     }
 
     private String generateNewRowHeader() {
-        int i = 1;
-        while (_rowHeaders.contains("Row " + i)) {
-            i++;
-        }
-        return "Row " + i;
+        return _rowHeaders.nextName();
     }
 
     private String generateNewColumnHeader() {
-        int i = 1;
-        while (_columnHeaders.contains("Header " + i)) {
-            i++;
-        }
-        return "Header " + i;
+        return _columnHeaders.nextName();
     }
 
     private boolean isDuplicateRowHeader(String header, int currentRow) {
-        for (int i = 0; i < _rowHeaders.size(); i++) {
-            if (i != currentRow && header.equals(_rowHeaders.get(i))) {
-                return true;
-            }
-        }
-        return false;
+        return _rowHeaders.isDuplicate(header, currentRow);
     }
 
     private boolean isDuplicateColumnHeader(String header, int currentColumn) {
-        for (int i = 0; i < _columnHeaders.size(); i++) {
-            if (i != currentColumn && header.equals(_columnHeaders.get(i))) {
-                return true;
-            }
-        }
-        return false;
+        return _columnHeaders.isDuplicate(header, currentColumn);
     }
 
     private void createTable(int rows, int cols) {
@@ -137,72 +127,24 @@ public class HtmlBorderManagerPanel extends JPanel {
         
         _tableModel = new CustomTableModel(rows + 1, cols + 1);
         _table = new JTable(_tableModel);
+        _table.setAutoCreateColumnsFromModel(false); // columns are kept in sync by addColumn/removeColumn
         _table.setCellSelectionEnabled(true);
         _table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         _table.setTableHeader(null);
         
-        // Initialize column headers
-        for (int i = 0; i <= cols; i++) {
-            String header;
-            if (i == 0) {
-                header = "";
-            } else {
-                header = generateNewColumnHeader();
-            }
-            // Ensure list is big enough, then set value
-            while (_columnHeaders.size() <= i) {
-                _columnHeaders.add("");
-            }
-            _columnHeaders.set(i, header);
-            _tableModel.setValueAt(header, 0, i);
-        }
-        
-        // Initialize row headers
-        for (int i = 0; i <= rows; i++) {
-            String header;
-            if (i == 0) {
-                header = "";
-            } else {
-                header = generateNewRowHeader();
-            }
-            // Ensure list is big enough, then set value
-            while (_rowHeaders.size() <= i) {
-                _rowHeaders.add("");
-            }
-            _rowHeaders.set(i, header);
-            _tableModel.setValueAt(header, i, 0);
-        }
+        // Initialize headers; the model reads them from the registries on demand.
+        // The default "Row n" / "Header n" names are computed, not stored.
+        _columnHeaders.add("");
+        _columnHeaders.fill(cols);
+        _rowHeaders.add("");
+        _rowHeaders.fill(rows);
         
         setupTableComponents();
     }
 
     private void setupTableComponents() {
-        _table.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, 
-                                                         boolean hasFocus, int row, int column) {
-                JLabel c = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                c.setHorizontalAlignment(JLabel.CENTER);
-                
-                if (row == 0 || column == 0) {
-                    if (isSelected) {
-                        c.setBackground(new Color(200, 220, 240));
-                    } else {
-                        c.setBackground(new Color(220, 230, 240));
-                    }
-                    c.setFont(new Font("Segoe UI", Font.BOLD, 14));
-                } else {
-                    c.setBackground(isSelected ? new Color(220, 235, 255) : Color.WHITE);
-                    c.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-                }
-                
-                c.setForeground(Color.DARK_GRAY);
-                MatteBorder b = _cellBorders.getOrDefault(new Point(row, column),
-                        new MatteBorder(0, 0, 0, 0, Color.GRAY));
-                c.setBorder(b);
-                return c;
-            }
-        });
+        _renderer = new BorderCellRenderer(_cellBorders, 0, Color.BLACK, true);
+        _table.setDefaultRenderer(Object.class, _renderer);
 
         setupContextMenu();
         
@@ -227,6 +169,11 @@ public class HtmlBorderManagerPanel extends JPanel {
         JMenuItem editBorders = new JMenuItem("Edit Borders");
         JMenuItem copyBorders = new JMenuItem("Copy Borders");
         JMenuItem pasteBorders = new JMenuItem("Paste Borders");
+        JMenu presets = new JMenu("Border Presets");
+        JMenuItem outline = new JMenuItem("Outline Only");
+        JMenuItem innerHorizontal = new JMenuItem("Inner Horizontal Lines");
+        JMenuItem innerVertical = new JMenuItem("Inner Vertical Lines");
+        JMenuItem allLines = new JMenuItem("All Lines");
         JMenuItem addRow = new JMenuItem("Add Row");
         JMenuItem removeRow = new JMenuItem("Remove Row");
         JMenuItem addColumn = new JMenuItem("Add Column");
@@ -235,6 +182,10 @@ public class HtmlBorderManagerPanel extends JPanel {
         editBorders.addActionListener(x -> editBorders());
         copyBorders.addActionListener(x -> copyBorders());
         pasteBorders.addActionListener(x -> pasteBorders());
+        outline.addActionListener(x -> applyPreset(BorderPresets::outline));
+        innerHorizontal.addActionListener(x -> applyPreset(BorderPresets::innerHorizontal));
+        innerVertical.addActionListener(x -> applyPreset(BorderPresets::innerVertical));
+        allLines.addActionListener(x -> applyPreset(BorderPresets::allLines));
         addRow.addActionListener(x -> addRow());
         removeRow.addActionListener(x -> removeRow());
         addColumn.addActionListener(x -> addColumn());
@@ -243,6 +194,11 @@ public class HtmlBorderManagerPanel extends JPanel {
         contextMenu.add(editBorders);
         contextMenu.add(copyBorders);
         contextMenu.add(pasteBorders);
+        presets.add(outline);
+        presets.add(innerHorizontal);
+        presets.add(innerVertical);
+        presets.add(allLines);
+        contextMenu.add(presets);
         contextMenu.addSeparator();
         contextMenu.add(addRow);
         contextMenu.add(removeRow);
@@ -264,10 +220,10 @@ public class HtmlBorderManagerPanel extends JPanel {
                         removeRow.setVisible(isRowHeader);
                         addColumn.setVisible(isColumnHeader);
                         removeColumn.setVisible(isColumnHeader);
-                        pasteBorders.setEnabled(!_copiedBorders.isEmpty());
+                        pasteBorders.setEnabled(_copiedBorders != null || clipboardHasText());
                         removeRow.setEnabled(isRowHeader && _tableModel.getRowCount() > 2);
                         removeColumn.setEnabled(isColumnHeader && _tableModel.getColumnCount() > 2);
-                        contextMenu.getComponent(3).setVisible(isRowHeader || isColumnHeader);
+                        contextMenu.getComponent(4).setVisible(isRowHeader || isColumnHeader);
                         contextMenu.show(_table, e.getX(), e.getY());
                     }
                 }
@@ -281,49 +237,24 @@ public class HtmlBorderManagerPanel extends JPanel {
             if (selectedRow == -1) selectedRow = _tableModel.getRowCount() - 1;
             
             // Insert empty row
-            _tableModel.insertRow(selectedRow + 1, new Object[_tableModel.getColumnCount()]);
+            _tableModel.insertRow(selectedRow + 1);
             
             // Generate and set unique header
             String newHeader = generateNewRowHeader();
             
             // Insert new header at the correct position
-            if (_rowHeaders.size() > selectedRow + 1) {
-                _rowHeaders.add(selectedRow + 1, newHeader);
-            } else {
-                // Ensure list is big enough, then set value
-                while (_rowHeaders.size() <= selectedRow + 1) {
-                    _rowHeaders.add("");
-                }
-                _rowHeaders.set(selectedRow + 1, newHeader);
-            }
+            _rowHeaders.add(selectedRow + 1, newHeader);
             
             _tableModel.setValueAt(newHeader, selectedRow + 1, 0);
             
-            // Update table model for all row headers to ensure sync
-            for (int i = 1; i < _tableModel.getRowCount(); i++) {
-                if (i < _rowHeaders.size()) {
-                    _tableModel.setValueAt(_rowHeaders.get(i), i, 0);
-                }
-            }
-            
             updateBordersAfterRowInsertion(selectedRow);
             _rowInput.setText(String.valueOf(_tableModel.getRowCount() - 1));
-            _table.revalidate();
-            _table.repaint();
         }
     }
 
     private void updateBordersAfterRowInsertion(int insertedAfterRow) {
-        Map<Point, MatteBorder> newBorders = new HashMap<>();
-        for (Map.Entry<Point, MatteBorder> entry : _cellBorders.entrySet()) {
-            Point oldPoint = entry.getKey();
-            if (oldPoint.x <= insertedAfterRow) {
-                newBorders.put(oldPoint, entry.getValue());
-            } else {
-                newBorders.put(new Point(oldPoint.x + 1, oldPoint.y), entry.getValue());
-            }
-        }
-        _cellBorders = newBorders;
+        _cellBorders.insertRow(insertedAfterRow + 1);
+        _separatorCells.insertRow(insertedAfterRow + 1);
     }
 
     private void removeRow() {
@@ -338,36 +269,14 @@ public class HtmlBorderManagerPanel extends JPanel {
             
             _tableModel.removeRow(selectedRow);
             
-            // Update table model for all row headers to ensure sync
-            for (int i = 1; i < _tableModel.getRowCount(); i++) {
-                if (i < _rowHeaders.size()) {
-                    _tableModel.setValueAt(_rowHeaders.get(i), i, 0);
-                } else {
-                    // Generate new header if needed
-                    String newHeader = generateNewRowHeader();
-                    _rowHeaders.add(newHeader);
-                    _tableModel.setValueAt(newHeader, i, 0);
-                }
-            }
-            
             updateBordersAfterRowRemoval(selectedRow);
             _rowInput.setText(String.valueOf(_tableModel.getRowCount() - 1));
-            _table.revalidate();
-            _table.repaint();
         }
     }
 
     private void updateBordersAfterRowRemoval(int removedRow) {
-        Map<Point, MatteBorder> newBorders = new HashMap<>();
-        for (Map.Entry<Point, MatteBorder> entry : _cellBorders.entrySet()) {
-            Point oldPoint = entry.getKey();
-            if (oldPoint.x < removedRow) {
-                newBorders.put(oldPoint, entry.getValue());
-            } else if (oldPoint.x > removedRow) {
-                newBorders.put(new Point(oldPoint.x - 1, oldPoint.y), entry.getValue());
-            }
-        }
-        _cellBorders = newBorders;
+        _cellBorders.removeRow(removedRow);
+        _separatorCells.removeRow(removedRow);
     }
 
     private void addColumn() {
@@ -376,49 +285,25 @@ public class HtmlBorderManagerPanel extends JPanel {
             if (selectedCol == -1) selectedCol = _tableModel.getColumnCount() - 1;
             
             // Add column
-            _tableModel.addColumn("", new Object[_tableModel.getRowCount()]);
+            _tableModel.insertColumn(selectedCol + 1);
+            insertTableColumn(selectedCol + 1);
             
             // Generate and set unique header
             String newHeader = generateNewColumnHeader();
             
             // Insert new header at the correct position
-            if (_columnHeaders.size() > selectedCol + 1) {
-                _columnHeaders.add(selectedCol + 1, newHeader);
-            } else {
-                // Ensure list is big enough, then set value
-                while (_columnHeaders.size() <= selectedCol + 1) {
-                    _columnHeaders.add("");
-                }
-                _columnHeaders.set(selectedCol + 1, newHeader);
-            }
+            _columnHeaders.add(selectedCol + 1, newHeader);
             
             _tableModel.setValueAt(newHeader, 0, selectedCol + 1);
             
-            // Update table model for all column headers to ensure sync
-            for (int i = 1; i < _tableModel.getColumnCount(); i++) {
-                if (i < _columnHeaders.size()) {
-                    _tableModel.setValueAt(_columnHeaders.get(i), 0, i);
-                }
-            }
-            
             updateBordersAfterColumnInsertion(selectedCol);
             _colInput.setText(String.valueOf(_tableModel.getColumnCount() - 1));
-            _table.revalidate();
-            _table.repaint();
         }
     }
 
     private void updateBordersAfterColumnInsertion(int insertedAfterCol) {
-        Map<Point, MatteBorder> newBorders = new HashMap<>();
-        for (Map.Entry<Point, MatteBorder> entry : _cellBorders.entrySet()) {
-            Point oldPoint = entry.getKey();
-            if (oldPoint.y <= insertedAfterCol) {
-                newBorders.put(oldPoint, entry.getValue());
-            } else {
-                newBorders.put(new Point(oldPoint.x, oldPoint.y + 1), entry.getValue());
-            }
-        }
-        _cellBorders = newBorders;
+        _cellBorders.insertColumn(insertedAfterCol + 1);
+        _separatorCells.insertColumn(insertedAfterCol + 1);
     }
 
     private void removeColumn() {
@@ -432,50 +317,51 @@ public class HtmlBorderManagerPanel extends JPanel {
             }
             
             // Remove column from model
-            for (int row = 0; row < _tableModel.getRowCount(); row++) {
-                for (int col = selectedCol; col < _tableModel.getColumnCount() - 1; col++) {
-                    _tableModel.setValueAt(_tableModel.getValueAt(row, col + 1), row, col);
-                }
-            }
-            _tableModel.setColumnCount(_tableModel.getColumnCount() - 1);
-            
-            // Update table model for all column headers to ensure sync
-            for (int i = 1; i < _tableModel.getColumnCount(); i++) {
-                if (i < _columnHeaders.size()) {
-                    _tableModel.setValueAt(_columnHeaders.get(i), 0, i);
-                } else {
-                    // Generate new header if needed
-                    String newHeader = generateNewColumnHeader();
-                    _columnHeaders.add(newHeader);
-                    _tableModel.setValueAt(newHeader, 0, i);
-                }
-            }
+            _tableModel.removeColumn(selectedCol);
+            removeTableColumn(selectedCol);
             
             updateBordersAfterColumnRemoval(selectedCol);
             _colInput.setText(String.valueOf(_tableModel.getColumnCount() - 1));
-            _table.revalidate();
-            _table.repaint();
         }
     }
 
     private void updateBordersAfterColumnRemoval(int removedCol) {
-        Map<Point, MatteBorder> newBorders = new HashMap<>();
-        for (Map.Entry<Point, MatteBorder> entry : _cellBorders.entrySet()) {
-            Point oldPoint = entry.getKey();
-            if (oldPoint.y < removedCol) {
-                newBorders.put(oldPoint, entry.getValue());
-            } else if (oldPoint.y > removedCol) {
-                newBorders.put(new Point(oldPoint.x, oldPoint.y - 1), entry.getValue());
-            }
+        _cellBorders.removeColumn(removedCol);
+        _separatorCells.removeColumn(removedCol);
+    }
+
+    private void insertTableColumn(int col) {
+        TableColumnModel columns = _table.getColumnModel();
+        columns.addColumn(new TableColumn(col));
+        columns.moveColumn(columns.getColumnCount() - 1, col);
+        for (int i = col + 1; i < columns.getColumnCount(); i++) {
+            columns.getColumn(i).setModelIndex(i);
+        }
+    }
+
+    private void removeTableColumn(int col) {
+        TableColumnModel columns = _table.getColumnModel();
+        columns.removeColumn(columns.getColumn(col));
+        for (int i = col; i < columns.getColumnCount(); i++) {
+            columns.getColumn(i).setModelIndex(i);
         }
-        _cellBorders = newBorders;
     }
 
-    private class CustomTableModel extends DefaultTableModel {
+    private class CustomTableModel extends GridTableModel {
         public CustomTableModel(int rowCount, int columnCount) {
             super(rowCount, columnCount);
         }
 
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (row == 0 && column > 0) {
+                return _columnHeaders.get(column);
+            } else if (column == 0 && row > 0) {
+                return _rowHeaders.get(row);
+            }
+            return super.getValueAt(row, column);
+        }
+
         @Override
         public boolean isCellEditable(int row, int column) {
             // Cell (0,0) is not editable
@@ -505,12 +391,8 @@ public class HtmlBorderManagerPanel extends JPanel {
                     return;
                 }
                 
-                // Ensure list is big enough, then set value
-                while (_columnHeaders.size() <= column) {
-                    _columnHeaders.add("");
-                }
                 _columnHeaders.set(column, newValue);
-                super.setValueAt(newValue, row, column);
+                fireTableCellUpdated(row, column);
                 
             } else if (column == 0 && row > 0) {
                 // Row header
@@ -524,12 +406,8 @@ public class HtmlBorderManagerPanel extends JPanel {
                     return;
                 }
                 
-                // Ensure list is big enough, then set value
-                while (_rowHeaders.size() <= row) {
-                    _rowHeaders.add("");
-                }
                 _rowHeaders.set(row, newValue);
-                super.setValueAt(newValue, row, column);
+                fireTableCellUpdated(row, column);
                 
             } else {
                 // Regular cell
@@ -539,22 +417,21 @@ public class HtmlBorderManagerPanel extends JPanel {
     }
 
     private void editBorders() {
-        int[] rows = _table.getSelectedRows();
-        int[] cols = _table.getSelectedColumns();
-        if (rows.length == 0 || cols.length == 0) return;
+        ListSelectionModel rowSelection = _table.getSelectionModel();
+        ListSelectionModel colSelection = _table.getColumnModel().getSelectionModel();
+        if (rowSelection.isSelectionEmpty() || colSelection.isSelectionEmpty()) return;
         
-        Point first = new Point(rows[0], cols[0]);
-        MatteBorder current = _cellBorders.getOrDefault(first, new MatteBorder(0, 0, 0, 0, Color.BLACK));
+        int current = _cellBorders.getSides(rowSelection.getMinSelectionIndex(), colSelection.getMinSelectionIndex());
         
         JPanel panel = new JPanel(new GridLayout(2, 2, 10, 10));
         Color bgColor = new Color(246, 247, 250);
         panel.setBorder(new EmptyBorder(15, 15, 15, 15));
         panel.setBackground(bgColor);
         
-        JCheckBox top = new JCheckBox("Top", current.getBorderInsets().top > 0);
-        JCheckBox bottom = new JCheckBox("Bottom", current.getBorderInsets().bottom > 0);
-        JCheckBox left = new JCheckBox("Left", current.getBorderInsets().left > 0);
-        JCheckBox right = new JCheckBox("Right", current.getBorderInsets().right > 0);
+        JCheckBox top = new JCheckBox("Top", (current & BorderGrid.TOP) != 0);
+        JCheckBox bottom = new JCheckBox("Bottom", (current & BorderGrid.BOTTOM) != 0);
+        JCheckBox left = new JCheckBox("Left", (current & BorderGrid.LEFT) != 0);
+        JCheckBox right = new JCheckBox("Right", (current & BorderGrid.RIGHT) != 0);
         
         Font checkFont = new Font("Segoe UI", Font.PLAIN, 14);
         top.setFont(checkFont);
@@ -575,92 +452,139 @@ public class HtmlBorderManagerPanel extends JPanel {
                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
 
         if (result == JOptionPane.OK_OPTION) {
-            int t = top.isSelected() ? 1 : 0;
-            int b = bottom.isSelected() ? 1 : 0;
-            int l = left.isSelected() ? 1 : 0;
-            int r = right.isSelected() ? 1 : 0;
-            MatteBorder newBorder = new MatteBorder(t, l, b, r, Color.BLACK);
+            BorderMask mask = BorderMask.of(BorderGrid.sides(top.isSelected(), left.isSelected(),
+                    bottom.isSelected(), right.isSelected()));
             
-            for (int row : rows) {
-                for (int col : cols) {
-                    _cellBorders.put(new Point(row, col), newBorder);
+            // One range write per selected block
+            int[] rowRuns = selectedRuns(rowSelection, 0, _tableModel.getRowCount() - 1);
+            int[] colRuns = selectedRuns(colSelection, 0, _tableModel.getColumnCount() - 1);
+            for (int r = 0; r < rowRuns.length; r += 2) {
+                for (int c = 0; c < colRuns.length; c += 2) {
+                    _cellBorders.apply(BorderGrid.Range.of(rowRuns[r], rowRuns[r + 1]),
+                            BorderGrid.Range.of(colRuns[c], colRuns[c + 1]), mask);
+                    _separatorCells.unset(BorderGrid.Range.of(rowRuns[r], rowRuns[r + 1]),
+                            BorderGrid.Range.of(colRuns[c], colRuns[c + 1]));
                 }
             }
-            _table.repaint();
+            repaintRuns(rowRuns, colRuns);
         }
     }
 
-    private void copyBorders() {
-        int[] rows = _table.getSelectedRows();
-        int[] cols = _table.getSelectedColumns();
-        if (rows.length == 0 || cols.length == 0) return;
-        
-        _copiedBorders.clear();
+    /** Apply a preset to every selected block */
+    private void applyPreset(BorderPreset preset) {
+        ListSelectionModel rowSelection = _table.getSelectionModel();
+        ListSelectionModel colSelection = _table.getColumnModel().getSelectionModel();
+        if (rowSelection.isSelectionEmpty() || colSelection.isSelectionEmpty()) return;
         
-        int minRow = Integer.MAX_VALUE;
-        int minCol = Integer.MAX_VALUE;
-        for (int row : rows) {
-            if (row < minRow) minRow = row;
+        int[] rowRuns = selectedRuns(rowSelection, 0, _tableModel.getRowCount() - 1);
+        int[] colRuns = selectedRuns(colSelection, 0, _tableModel.getColumnCount() - 1);
+        for (int r = 0; r < rowRuns.length; r += 2) {
+            for (int c = 0; c < colRuns.length; c += 2) {
+                preset.apply(_cellBorders, BorderGrid.Range.of(rowRuns[r], rowRuns[r + 1]),
+                        BorderGrid.Range.of(colRuns[c], colRuns[c + 1]));
+                _separatorCells.unset(BorderGrid.Range.of(rowRuns[r], rowRuns[r + 1]),
+                        BorderGrid.Range.of(colRuns[c], colRuns[c + 1]));
+            }
         }
-        for (int col : cols) {
-            if (col < minCol) minCol = col;
+        repaintRuns(rowRuns, colRuns);
+    }
+
+    /**
+     * Draw or remove a line under every group of data rows, following the checkbox.
+     * Unticking takes back only the lines ticking added, in whatever rows they have moved to;
+     * cells edited or pasted over in between are the user's and keep their borders.
+     */
+    private void toggleGroupingSeparators() {
+        if (_tableModel == null) {
+            _groupingSeparatorCheckbox.setSelected(false);
+            return;
+        }
+        BorderGrid.Range dataRows = BorderGrid.Range.of(1, _tableModel.getRowCount() - 1);
+        BorderGrid.Range dataCols = BorderGrid.Range.of(1, _tableModel.getColumnCount() - 1);
+        if (!_groupingSeparatorCheckbox.isSelected()) {
+            BorderPresets.removeGroupSeparators(_cellBorders, _separatorCells);
+            repaintCells(dataRows.getFrom(), dataRows.getTo(), dataCols.getFrom(), dataCols.getTo());
+            return;
         }
-        _copyReferencePoint = new Point(minRow, minCol);
         
-        for (int row : rows) {
-            for (int col : cols) {
-                Point originalPos = new Point(row, col);
-                Point relativePos = new Point(row - minRow, col - minCol);
-                MatteBorder border = _cellBorders.getOrDefault(originalPos,
-                        new MatteBorder(0, 0, 0, 0, Color.BLACK));
-                _copiedBorders.put(relativePos, border);
+        String input = JOptionPane.showInputDialog(this, "Rows per group:", _groupSize);
+        int groupSize;
+        try {
+            groupSize = Integer.parseInt(input == null ? "" : input.trim());
+        } catch (NumberFormatException e) {
+            groupSize = 0;
+        }
+        if (groupSize <= 0) {
+            if (input != null) {
+                JOptionPane.showMessageDialog(this, "Please enter a positive number of rows!");
             }
+            _groupingSeparatorCheckbox.setSelected(false);
+            return;
+        }
+        _groupSize = groupSize;
+        BorderPresets.groupSeparators(_cellBorders, dataRows, dataCols, _groupSize, _separatorCells);
+        repaintCells(dataRows.getFrom(), dataRows.getTo(), dataCols.getFrom(), dataCols.getTo());
+    }
+
+    /** Same shape as the BorderPresets methods, so the menu can hand any of them to applyPreset */
+    private interface BorderPreset {
+        void apply(BorderGrid grid, BorderGrid.Range rows, BorderGrid.Range cols);
+    }
+
+    private void copyBorders() {
+        ListSelectionModel rowSelection = _table.getSelectionModel();
+        ListSelectionModel colSelection = _table.getColumnModel().getSelectionModel();
+        if (rowSelection.isSelectionEmpty() || colSelection.isSelectionEmpty()) return;
+        
+        _copiedBorders = BorderClip.copy(_cellBorders,
+                selectedRuns(rowSelection, 0, _tableModel.getRowCount() - 1),
+                selectedRuns(colSelection, 0, _tableModel.getColumnCount() - 1));
+        
+        // Also offered as text, so other panels and applications can paste it
+        try {
+            Toolkit.getDefaultToolkit().getSystemClipboard()
+                    .setContents(new StringSelection(_copiedBorders.toText()), null);
+        } catch (HeadlessException | IllegalStateException e) {
+            // no system clipboard or it is busy: the copy stays local to this panel
         }
         
         JOptionPane.showMessageDialog(this, 
-            "Copied " + _copiedBorders.size() + " cell borders", 
+            "Copied " + _copiedBorders.getCellCount() + " cell borders", 
             "Copy Successful", 
             JOptionPane.INFORMATION_MESSAGE);
     }
 
     private void pasteBorders() {
-        if (_copiedBorders.isEmpty()) {
+        BorderClip clip;
+        try {
+            clip = clipboardBorders();
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Invalid Borders", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (clip == null) clip = _copiedBorders;
+        if (clip == null || clip.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No borders copied to paste!");
             return;
         }
         
-        int[] targetRows = _table.getSelectedRows();
-        int[] targetCols = _table.getSelectedColumns();
-        if (targetRows.length == 0 || targetCols.length == 0) {
+        ListSelectionModel rowSelection = _table.getSelectionModel();
+        ListSelectionModel colSelection = _table.getColumnModel().getSelectionModel();
+        if (rowSelection.isSelectionEmpty() || colSelection.isSelectionEmpty()) {
             JOptionPane.showMessageDialog(this, "Please select target cells first!");
             return;
         }
         
-        int targetMinRow = Integer.MAX_VALUE;
-        int targetMinCol = Integer.MAX_VALUE;
-        for (int row : targetRows) {
-            if (row < targetMinRow) targetMinRow = row;
-        }
-        for (int col : targetCols) {
-            if (col < targetMinCol) targetMinCol = col;
-        }
-        
-        int pasteCount = 0;
-        for (Map.Entry<Point, MatteBorder> entry : _copiedBorders.entrySet()) {
-            Point relativePos = entry.getKey();
-            int targetRow = targetMinRow + relativePos.x;
-            int targetCol = targetMinCol + relativePos.y;
-            
-            if (targetRow >= 0 && targetRow < _tableModel.getRowCount() &&
-                targetCol >= 0 && targetCol < _tableModel.getColumnCount() &&
-                contains(targetRows, targetRow) && contains(targetCols, targetCol)) {
-                
-                _cellBorders.put(new Point(targetRow, targetCol), entry.getValue());
-                pasteCount++;
-            }
-        }
+        // Only selected target cells take a border: paste into the selected runs row by row
+        int row = rowSelection.getMinSelectionIndex();
+        int col = colSelection.getMinSelectionIndex();
+        int[] rowRuns = selectedRuns(rowSelection, 0, _tableModel.getRowCount() - 1);
+        int[] colRuns = selectedRuns(colSelection, 0, _tableModel.getColumnCount() - 1);
+        int pasteCount = clip.paste(_cellBorders, row, col, rowRuns, colRuns);
+        clip.unset(_separatorCells, row, col, rowRuns, colRuns);
         
-        _table.repaint();
+        repaintCells(row, Math.min(row + clip.getRowCount() - 1, rowSelection.getMaxSelectionIndex()),
+                col, Math.min(col + clip.getColumnCount() - 1, colSelection.getMaxSelectionIndex()));
         
         JOptionPane.showMessageDialog(this, 
             "Pasted " + pasteCount + " cell borders", 
@@ -668,11 +592,72 @@ public class HtmlBorderManagerPanel extends JPanel {
             JOptionPane.INFORMATION_MESSAGE);
     }
 
-    private boolean contains(int[] array, int value) {
-        for (int item : array) {
-            if (item == value) return true;
+    private boolean clipboardHasText() {
+        try {
+            return Toolkit.getDefaultToolkit().getSystemClipboard().isDataFlavorAvailable(DataFlavor.stringFlavor);
+        } catch (HeadlessException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Borders copied as text onto the system clipboard, possibly by another panel.
+     * @return null if the clipboard holds no border clip or cannot be read
+     */
+    private BorderClip clipboardBorders() {
+        if (!clipboardHasText()) return null;
+        try {
+            Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+            return BorderClip.fromText((String) clipboard.getData(DataFlavor.stringFlavor));
+        } catch (HeadlessException | IllegalStateException | UnsupportedFlavorException | IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Repaint the cells of an inclusive block, as far as they are visible.
+     * A cell's borders are drawn inside the cell, so nothing around the block needs painting.
+     */
+    private void repaintCells(int fromRow, int toRow, int fromCol, int toCol) {
+        fromRow = Math.max(fromRow, 0);
+        fromCol = Math.max(fromCol, 0);
+        toRow = Math.min(toRow, _table.getRowCount() - 1);
+        toCol = Math.min(toCol, _table.getColumnCount() - 1);
+        if (fromRow > toRow || fromCol > toCol) return;
+        Rectangle dirty = _table.getCellRect(fromRow, fromCol, true)
+                .union(_table.getCellRect(toRow, toCol, true))
+                .intersection(_table.getVisibleRect());
+        if (!dirty.isEmpty()) {
+            _table.repaint(dirty);
+        }
+    }
+
+    /** Repaint the block spanned by selected runs; the repaint manager would merge separate blocks anyway */
+    private void repaintRuns(int[] rowRuns, int[] colRuns) {
+        if (rowRuns.length == 0 || colRuns.length == 0) return;
+        repaintCells(rowRuns[0], rowRuns[rowRuns.length - 1], colRuns[0], colRuns[colRuns.length - 1]);
+    }
+
+    /** Cells rendered by the current table, to check how much an edit repaints */
+    public long getRenderCount() {
+        return _renderer == null ? 0 : _renderer.getRenderCount();
+    }
+
+    /** Selected intervals of a selection model within [from, to], as start/end pairs */
+    private static int[] selectedRuns(ListSelectionModel selection, int from, int to) {
+        from = Math.max(from, selection.getMinSelectionIndex());
+        to = Math.min(to, selection.getMaxSelectionIndex());
+        int[] runs = new int[8];
+        int count = 0;
+        for (int index = from; index <= to; index++) {
+            if (!selection.isSelectedIndex(index)) continue;
+            int start = index;
+            while (index < to && selection.isSelectedIndex(index + 1)) index++;
+            if (count == runs.length) runs = Arrays.copyOf(runs, 2 * count);
+            runs[count++] = start;
+            runs[count++] = index;
         }
-        return false;
+        return Arrays.copyOf(runs, count);
     }
 
     private void styleLabel(JLabel jLabel) {
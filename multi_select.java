@@ -44,22 +44,17 @@ private void pasteBorders() {
         return;
     }
     
-    int[] targetRows = _table.getSelectedRows();
-    int[] targetCols = _table.getSelectedColumns();
-    if (targetRows.length == 0 || targetCols.length == 0) {
+    // Selection models keep their selection as bit sets, so membership is O(1) per cell
+    ListSelectionModel rowSelection = _table.getSelectionModel();
+    ListSelectionModel colSelection = _table.getColumnModel().getSelectionModel();
+    if (rowSelection.isSelectionEmpty() || colSelection.isSelectionEmpty()) {
         JOptionPane.showMessageDialog(this, "Please select target cells first!");
         return;
     }
     
-    // Find the top-left corner of the target selection
-    int targetMinRow = Integer.MAX_VALUE;
-    int targetMinCol = Integer.MAX_VALUE;
-    for (int row : targetRows) {
-        if (row < targetMinRow) targetMinRow = row;
-    }
-    for (int col : targetCols) {
-        if (col < targetMinCol) targetMinCol = col;
-    }
+    // Top-left corner of the target selection
+    int targetMinRow = rowSelection.getMinSelectionIndex();
+    int targetMinCol = colSelection.getMinSelectionIndex();
     
     // Paste all copied borders maintaining relative positions
     int pasteCount = 0;
@@ -71,7 +66,7 @@ private void pasteBorders() {
         // Check if target position is within table bounds and selected
         if (targetRow >= 0 && targetRow < _tableModel.getRowCount() &&
             targetCol >= 0 && targetCol < _tableModel.getColumnCount() &&
-            contains(targetRows, targetRow) && contains(targetCols, targetCol)) {
+            rowSelection.isSelectedIndex(targetRow) && colSelection.isSelectedIndex(targetCol)) {
             
             _cellBorders.put(new Point(targetRow, targetCol), entry.getValue());
             pasteCount++;
@@ -85,12 +80,4 @@ private void pasteBorders() {
         "Pasted " + pasteCount + " cell borders", 
         "Paste Complete", 
         JOptionPane.INFORMATION_MESSAGE);
-}
-
-// Helper method to check if an array contains a value
-private boolean contains(int[] array, int value) {
-    for (int item : array) {
-        if (item == value) return true;
-    }
-    return false;
 }
\ No newline at end of file
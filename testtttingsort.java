@@ -4,111 +4,488 @@
         return;
     }
 
-+   // ✔ Defensive copy
-    List<Object> rows = new ArrayList<>(getModel().getDisplayRows());
+    // Defensive copy
+    // Collapsed groups get their cached children back, so they are sorted with the rest
+    // A collapsed group without cached children is unknown: its children are not in the rows
+    List<Object> rows = new ArrayList<>(getModel().getDisplayRows().size());
+    Set<GroupRow> unknownGroups = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Object row : getModel().getDisplayRows()) {
+        rows.add(row);
+        if (row instanceof GroupRow && !((GroupRow) row).isExpanded()) {
+            List<Object> cached = _sortedChildren.get(row);
+            if (cached != null) {
+                rows.addAll(cached);
+            } else {
+                unknownGroups.add((GroupRow) row);
+            }
+        }
+    }
 
-+   // ✔ Parent → children map (always re-created)
-    Map<GroupRow, List<Object>> parentChildMap = new HashMap<>();
+    // Decorate: look up every sort key once per row, not twice per comparison
+    // entries[i] wraps rows.get(i) with its precomputed keys
+    SortKeyTable keyTable = new SortKeyTable(sortKeys, rows);
+    SortEntry[] entries = keyTable.entries();
 
-+   // ✔ Always register parents
-    for (Object row : rows) {
-        if (row instanceof GroupRow) {
-            parentChildMap.put((GroupRow) row, new ArrayList<>());
+    // Parent -> children map (always re-created)
+    Map<GroupRow, List<SortEntry>> parentChildMap = new HashMap<>();
+
+    List<SortEntry> topLevelParents = new ArrayList<>();
+
+    // Single forward pass: register parents and ALWAYS collect children, whether expanded or not
+    // The current GroupRow is the parent of every row below it, no backward walk per child
+    // Fixes the "orphan children when expanded" problem
+    // Groups keep their display order in topLevelParents and children keep theirs in each list,
+    // so the stable sorts below leave equal rows where they were
+    List<SortEntry> currentChildren = null;
+    for (SortEntry entry : entries) {
+        if (entry.row instanceof GroupRow) {
+            currentChildren = new ArrayList<>();
+            parentChildMap.put((GroupRow) entry.row, currentChildren);
+            topLevelParents.add(entry);
+        // Children before any parent have no group and are skipped
+        } else if (currentChildren != null) {
+            currentChildren.add(entry);
         }
     }
 
-    List<Object> topLevelParents = new ArrayList<>();
+    // One comparator instance for the whole sort, reading only precomputed keys
+    Comparator<SortEntry> fullComparator = keyTable.comparator();
 
-+   // ✔ Phase 1: collect parents (only parents)
-    for (Object row : rows) {
-        if (row instanceof GroupRow) {
-            topLevelParents.add(row);
+    // Sort parents using safe comparator
+    Collections.sort(topLevelParents, fullComparator);
+
+    // Sort children inside each parent
+    // Groups are independent: from the threshold on they are sorted on the fork-join pool
+    if (entries.length - topLevelParents.size() >= _parallelSortThreshold) {
+        parentChildMap.values().parallelStream().forEach(children -> sortChildren(children, fullComparator));
+    } else {
+        for (SortEntry parentEntry : topLevelParents) {
+            if (parentEntry.row instanceof GroupRow) {
+                List<SortEntry> children = parentChildMap.get((GroupRow) parentEntry.row);
+                if (children != null) {
+                    sortChildren(children, fullComparator);
+                }
+            }
         }
     }
 
-+   // ✔ Phase 2: ALWAYS collect children, whether expanded or not
-+   //   → Fixes the "orphan children when expanded" problem
-    for (int i = 0; i < rows.size(); i++) {
-        Object row = rows.get(i);
+    // Undecorate: build the final sorted rows including expanded children under parent
+    List<Object> finalRows = new ArrayList<>();
+    _sortedChildren.clear();
+    for (SortEntry parentEntry : topLevelParents) {
+        finalRows.add(parentEntry.row);
 
-        if (row instanceof GroupRow) {
-            continue; // children only
-        }
+        if (parentEntry.row instanceof GroupRow) {
+            GroupRow gp = (GroupRow) parentEntry.row;
+            List<Object> childRows = new ArrayList<>();
+            for (SortEntry child : parentChildMap.getOrDefault(gp, Collections.emptyList())) {
+                childRows.add(child.row);
+            }
 
-        // find the nearest parent above
-        GroupRow parent = null;
-        for (int j = i - 1; j >= 0; j--) {
-            Object prev = rows.get(j);
-            if (prev instanceof GroupRow) {
-                parent = (GroupRow) prev;
-                break;
+            // Keep the sorted children for expand/collapse and row edits
+            // Not for unknown groups: an empty list there would hide their real children
+            if (!unknownGroups.contains(gp)) {
+                _sortedChildren.put(gp, childRows);
             }
-        }
 
-+       // ✔ Prevent NPE if child is before any parent
-        if (parent != null) {
-            parentChildMap.get(parent).add(row);
+            // If expanded, insert sorted children under parent
+            if (gp.isExpanded()) {
+                finalRows.addAll(childRows);
+            }
         }
     }
 
-+   // ✔ SAFER METHOD: Evaluate values using safe comparator
-    Comparator<Object> fullComparator = (o1, o2) -> {
-        for (SortKey sortKey : sortKeys) {
-            int col = sortKey.getColumn();
+    // Atomic update to model, then report only the range that changed
+    // fireTableDataChanged() made JTable drop selection and recompute every row
+    // Without a table to find the selection of, a change still goes out as
+    // fireTableDataChanged(): a cleared selection beats one on the wrong rows
+    List<Object> displayRows = getModel().getDisplayRows();
+    ListSelectionModel selection = selectionModel();
+    List<Object> selectedRows = selectedRows(selection, displayRows);
+    int[] changed = changedRange(displayRows, finalRows);
+    int oldCount = displayRows.size();
+    displayRows.clear();
+    displayRows.addAll(finalRows);
 
-+           // ✔ Protect from index lookup errors
-            int idx1 = safeModelIndex(o1);
-            int idx2 = safeModelIndex(o2);
-            if (idx1 < 0 || idx2 < 0) continue;
+    if (selection == null) {
+        if (changed != null) getModel().fireTableDataChanged();
+        return;
+    }
+    fireRowChanges(changed, oldCount, finalRows.size());
+    restoreSelection(selection, selectedRows, finalRows);
+}
 
-+           // ✔ Protect from null model values
-            Object v1 = safeValue(idx1, col);
-            Object v2 = safeValue(idx2, col);
+// Selection of the table showing the rows, kept on the same row objects across sorts
+// The table is the JTable listening to the model, looked up on every sort so a new
+// selection model is picked up; null if there is none, several, or one with its own RowSorter
+private ListSelectionModel selectionModel() {
+    JTable table = null;
+    for (Object listener : getModel().getTableModelListeners()) {
+        if (!(listener instanceof JTable)) continue;
+        if (table != null) return null;
+        table = (JTable) listener;
+    }
+    return table == null || table.getRowSorter() != null ? null : table.getSelectionModel();
+}
 
-+           // ✔ Compare safely using nullsLast + toString protection
-            Comparator<Object> comp = Comparator.nullsLast(
-                Comparator.comparing(x -> x == null ? "" : x.toString())
-            );
+// First and last index where the two orders differ (by identity), or null if they are the same
+// The last index is counted from the end, so it is valid in both lists
+private static int[] changedRange(List<Object> oldRows, List<Object> newRows) {
+    int common = Math.min(oldRows.size(), newRows.size());
+    int first = 0;
+    while (first < common && oldRows.get(first) == newRows.get(first)) first++;
+    if (first == common && oldRows.size() == newRows.size()) return null;
+    int fromEnd = 0;
+    while (fromEnd < common - first
+            && oldRows.get(oldRows.size() - 1 - fromEnd) == newRows.get(newRows.size() - 1 - fromEnd)) {
+        fromEnd++;
+    }
+    return new int[] {first, fromEnd};
+}
 
-            int result = comp.compare(v1, v2);
-            if (result != 0) {
-                return sortKey.getSortOrder() == SortOrder.ASCENDING ? result : -result;
-            }
+// One rows-updated event for the moved range, plus one insert or delete when the count changed
+private void fireRowChanges(int[] changed, int oldCount, int newCount) {
+    if (changed == null) return;
+    int first = changed[0];
+    int oldEnd = oldCount - changed[1]; // exclusive
+    int newEnd = newCount - changed[1];
+    int common = Math.min(oldEnd, newEnd) - first;
+    if (common > 0) {
+        getModel().fireTableRowsUpdated(first, first + common - 1);
+    }
+    if (newEnd > oldEnd) {
+        getModel().fireTableRowsInserted(oldEnd, newEnd - 1);
+    } else if (oldEnd > newEnd) {
+        getModel().fireTableRowsDeleted(newEnd, oldEnd - 1);
+    }
+}
+
+private static List<Object> selectedRows(ListSelectionModel selection, List<Object> displayRows) {
+    List<Object> selected = new ArrayList<>();
+    if (selection == null || selection.isSelectionEmpty()) return selected;
+    int max = Math.min(selection.getMaxSelectionIndex(), displayRows.size() - 1);
+    for (int i = selection.getMinSelectionIndex(); i <= max; i++) {
+        if (selection.isSelectedIndex(i)) selected.add(displayRows.get(i));
+    }
+    return selected;
+}
+
+// Select the same row objects at their new positions, as one adjusting change
+private static void restoreSelection(ListSelectionModel selection, List<Object> selected, List<Object> rows) {
+    if (selection == null || selected.isEmpty()) return;
+    Set<Object> wanted = Collections.newSetFromMap(new IdentityHashMap<>());
+    wanted.addAll(selected);
+    selection.setValueIsAdjusting(true);
+    selection.clearSelection();
+    for (int i = 0; i < rows.size(); i++) {
+        if (!wanted.contains(rows.get(i))) continue;
+        int end = i;
+        while (end + 1 < rows.size() && wanted.contains(rows.get(end + 1))) end++;
+        selection.addSelectionInterval(i, end);
+        i = end;
+    }
+    selection.setValueIsAdjusting(false);
+}
+
+// Sorted children of every group as of the last sort, expanded or not
+// Collapsed groups whose children were never displayed have no entry
+private final Map<GroupRow, List<Object>> _sortedChildren = new HashMap<>();
+
+// Call when the model adds or removes rows: the cached children are stale from then on
+// Collapsed groups become unknown, so expandGroup returns false and the caller rebuilds them
+public void invalidateGroups() {
+    _sortedChildren.clear();
+}
+
+// Same for the rows of one group only
+public void invalidateGroup(GroupRow group) {
+    _sortedChildren.remove(group);
+}
+
+// Expand one group without a full resort: splice its cached sorted children in under it
+// Returns false when the group is unknown to the last sort and the caller has to rebuild
+public boolean expandGroup(GroupRow group) {
+    List<Object> children = _sortedChildren.get(group);
+    int parentIndex = getModel().getDisplayRows().indexOf(group);
+    if (children == null || parentIndex < 0) return false;
+    if (group.isExpanded()) return true;
+
+    group.setExpanded(true);
+    getModel().getDisplayRows().addAll(parentIndex + 1, children);
+    if (!children.isEmpty()) {
+        getModel().fireTableRowsInserted(parentIndex + 1, parentIndex + children.size());
+    }
+    return true;
+}
+
+// Collapse one group without a full resort: cut its children out of the display rows
+// The children are the rows up to the next GroupRow, whatever the cache says,
+// and they become the cached children so expandGroup brings back exactly these
+public boolean collapseGroup(GroupRow group) {
+    List<Object> displayRows = getModel().getDisplayRows();
+    int parentIndex = displayRows.indexOf(group);
+    if (parentIndex < 0) return false;
+    if (!group.isExpanded()) return _sortedChildren.containsKey(group);
+
+    int end = parentIndex + 1;
+    while (end < displayRows.size() && !(displayRows.get(end) instanceof GroupRow)) end++;
+    List<Object> children = displayRows.subList(parentIndex + 1, end);
+    _sortedChildren.put(group, new ArrayList<>(children));
+    group.setExpanded(false);
+    children.clear();
+    if (end > parentIndex + 1) {
+        getModel().fireTableRowsDeleted(parentIndex + 1, end - 1);
+    }
+    return true;
+}
+
+// A child row was edited: re-sort its own group only and repaint that range
+// A GroupRow edit can move the group itself, so that still takes a full sort
+public void rowUpdated(Object row) {
+    List<Object> displayRows = getModel().getDisplayRows();
+    int index = displayRows.indexOf(row);
+    List<? extends SortKey> sortKeys = getSortKeys();
+    if (sortKeys == null || sortKeys.isEmpty()) {
+        if (index >= 0) getModel().fireTableRowsUpdated(index, index);
+        return;
+    }
+    if (row instanceof GroupRow) {
+        sort();
+        return;
+    }
+
+    // Find the group: the nearest GroupRow above a displayed row, else the cache (collapsed group)
+    GroupRow group = null;
+    for (int i = index - 1; i >= 0 && group == null; i--) {
+        if (displayRows.get(i) instanceof GroupRow) group = (GroupRow) displayRows.get(i);
+    }
+    if (group == null) {
+        for (Map.Entry<GroupRow, List<Object>> cached : _sortedChildren.entrySet()) {
+            if (cached.getValue().contains(row)) group = cached.getKey();
         }
-        return 0;
-    };
+    }
+    List<Object> children = group == null ? null : _sortedChildren.get(group);
+    if (children == null) {
+        sort();
+        return;
+    }
 
-+   // ✔ Sort parents using safe comparator
-    Collections.sort(topLevelParents, fullComparator);
+    SortKeyTable keyTable = new SortKeyTable(sortKeys, children);
+    List<SortEntry> entries = new ArrayList<>(Arrays.asList(keyTable.entries()));
+    sortChildren(entries, keyTable.comparator());
+    for (int i = 0; i < entries.size(); i++) {
+        children.set(i, entries.get(i).row);
+    }
 
-+   // ✔ Sort children inside each parent
-    for (Object parentObj : topLevelParents) {
-        if (parentObj instanceof GroupRow) {
-            List<Object> children = parentChildMap.get((GroupRow) parentObj);
-+           if (children != null) {
-                Collections.sort(children, fullComparator);
-+           }
+    if (group.isExpanded()) {
+        int first = displayRows.indexOf(group) + 1;
+        for (int i = 0; i < children.size(); i++) {
+            displayRows.set(first + i, children.get(i));
+        }
+        if (!children.isEmpty()) {
+            getModel().fireTableRowsUpdated(first, first + children.size() - 1);
         }
     }
+}
 
-+   // ✔ Build the final sorted rows including expanded children under parent
-    List<Object> finalRows = new ArrayList<>();
-    for (Object parentObj : topLevelParents) {
-        finalRows.add(parentObj);
+// Child rows at which the grouped sort goes parallel
+private int _parallelSortThreshold = 10_000;
 
-        if (parentObj instanceof GroupRow) {
-            GroupRow gp = (GroupRow) parentObj;
+// Tune or disable (Integer.MAX_VALUE) the parallel child sort
+public void setParallelSortThreshold(int threshold) {
+    _parallelSortThreshold = threshold;
+}
 
-+           // ✔ If expanded, insert sorted children under parent
-            if (gp.isExpanded()) {
-                finalRows.addAll(parentChildMap.getOrDefault(gp, Collections.emptyList()));
+// Stable sort of one group; a group past the threshold alone uses Arrays.parallelSort (stable too)
+private void sortChildren(List<SortEntry> children, Comparator<SortEntry> comparator) {
+    if (children.size() < _parallelSortThreshold) {
+        children.sort(comparator);
+        return;
+    }
+    SortEntry[] sorted = children.toArray(new SortEntry[0]);
+    Arrays.parallelSort(sorted, comparator);
+    for (int i = 0; i < sorted.length; i++) {
+        children.set(i, sorted[i]);
+    }
+}
+
+// A display row and the slot of its precomputed keys in SortKeyTable
+private static final class SortEntry {
+    final Object row;
+    final int slot;
+
+    SortEntry(Object row, int slot) {
+        this.row = row;
+        this.slot = slot;
+    }
+}
+
+// Sort keys extracted once per row (decorate-sort-undecorate)
+// safeModelIndex/safeValue run n times instead of O(n log n) times
+private final class SortKeyTable {
+    private final SortEntry[] _entries;
+    private final KeyColumn[] _columns;  // [sort key]
+    private final boolean[] _valid;      // [slot], false when the model index lookup failed
+
+    SortKeyTable(List<? extends SortKey> sortKeys, List<Object> rows) {
+        int count = rows.size();
+        _entries = new SortEntry[count];
+        _valid = new boolean[count];
+        int[] modelIndexes = new int[count];
+        for (int slot = 0; slot < count; slot++) {
+            Object row = rows.get(slot);
+            _entries[slot] = new SortEntry(row, slot);
+            modelIndexes[slot] = safeModelIndex(row);
+            _valid[slot] = modelIndexes[slot] >= 0;
+        }
+
+        _columns = new KeyColumn[sortKeys.size()];
+        Object[] values = new Object[count];
+        for (int k = 0; k < sortKeys.size(); k++) {
+            SortKey sortKey = sortKeys.get(k);
+            int column = sortKey.getColumn();
+            for (int slot = 0; slot < count; slot++) {
+                values[slot] = _valid[slot] ? safeValue(modelIndexes[slot], column) : null;
             }
+            _columns[k] = new KeyColumn(getModel().getColumnClass(column), values,
+                    sortKey.getSortOrder() != SortOrder.ASCENDING);
         }
     }
 
-+   // ✔ Atomic update to model
-    getModel().getDisplayRows().clear();
-    getModel().getDisplayRows().addAll(finalRows);
+    SortEntry[] entries() {
+        return _entries;
+    }
 
-    getModel().fireTableDataChanged();
-}
\ No newline at end of file
+    // Nulls last; rows whose model index could not be found compare equal, as before
+    Comparator<SortEntry> comparator() {
+        return (e1, e2) -> {
+            if (!_valid[e1.slot] || !_valid[e2.slot]) return 0;
+            for (KeyColumn column : _columns) {
+                int result = column.compare(e1.slot, e2.slot);
+                if (result != 0) {
+                    return column.descending ? -result : result;
+                }
+            }
+            return 0;
+        };
+    }
+}
+
+// Typed keys of one sort column, chosen from the model's getColumnClass
+// Numbers and dates compare by value instead of by their toString()
+// Strings compare by a collation key computed once per distinct string
+private static final class KeyColumn {
+    static final int INTEGRAL = 0;   // Integer, Long, Short, Byte, Number holding only these -> long
+    static final int DECIMAL = 1;    // Double, Float, any other Number                      -> double
+    static final int DATE = 2;       // LocalDate                                            -> epoch day
+    static final int COMPARABLE = 3; // any other Comparable, e.g. BigDecimal
+    static final int COLLATED = 4;   // String and everything else                           -> CollationKey of toString()
+
+    final boolean descending;
+    private final int _kind;
+    private final boolean[] _nulls;
+    private long[] _longs;
+    private double[] _doubles;
+    private Object[] _objects;
+
+    KeyColumn(Class<?> columnClass, Object[] values, boolean descending) {
+        this.descending = descending;
+        int count = values.length;
+        _nulls = new boolean[count];
+        _kind = kindOf(columnClass, values);
+        switch (_kind) {
+            case INTEGRAL:
+                _longs = new long[count];
+                for (int slot = 0; slot < count; slot++) {
+                    _nulls[slot] = values[slot] == null;
+                    if (!_nulls[slot]) _longs[slot] = ((Number) values[slot]).longValue();
+                }
+                break;
+            case DECIMAL:
+                _doubles = new double[count];
+                for (int slot = 0; slot < count; slot++) {
+                    _nulls[slot] = values[slot] == null;
+                    if (!_nulls[slot]) _doubles[slot] = ((Number) values[slot]).doubleValue();
+                }
+                break;
+            case DATE:
+                _longs = new long[count];
+                for (int slot = 0; slot < count; slot++) {
+                    _nulls[slot] = values[slot] == null;
+                    if (!_nulls[slot]) _longs[slot] = ((LocalDate) values[slot]).toEpochDay();
+                }
+                break;
+            case COMPARABLE:
+                _objects = values.clone();
+                for (int slot = 0; slot < count; slot++) {
+                    _nulls[slot] = values[slot] == null;
+                }
+                break;
+            default:
+                _objects = new Object[count];
+                Collator collator = Collator.getInstance();
+                Map<String, CollationKey> cache = new HashMap<>();
+                for (int slot = 0; slot < count; slot++) {
+                    _nulls[slot] = values[slot] == null;
+                    if (!_nulls[slot]) _objects[slot] = cache.computeIfAbsent(values[slot].toString(), collator::getCollationKey);
+                }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    int compare(int slot1, int slot2) {
+        boolean null1 = _nulls[slot1];
+        boolean null2 = _nulls[slot2];
+        if (null1 || null2) {
+            return null1 == null2 ? 0 : null1 ? 1 : -1;
+        }
+        switch (_kind) {
+            case INTEGRAL:
+            case DATE:
+                return Long.compare(_longs[slot1], _longs[slot2]);
+            case DECIMAL:
+                return Double.compare(_doubles[slot1], _doubles[slot2]);
+            default:
+                return ((Comparable) _objects[slot1]).compareTo(_objects[slot2]);
+        }
+    }
+
+    // The declared class decides, unless a value does not match it: then compare toString() collated
+    // A Number column compares as long while every value is integral, so Longs past 2^53 stay exact
+    private static int kindOf(Class<?> columnClass, Object[] values) {
+        int kind;
+        Class<?> expected;
+        if (columnClass == Integer.class || columnClass == Long.class
+                || columnClass == Short.class || columnClass == Byte.class) {
+            kind = INTEGRAL;
+            expected = columnClass;
+        } else if (columnClass == Number.class) {
+            kind = INTEGRAL;
+            expected = Number.class;
+            for (Object value : values) {
+                if (value instanceof Number && !isIntegral(value)) kind = DECIMAL;
+            }
+        } else if (columnClass == Double.class || columnClass == Float.class) {
+            kind = DECIMAL;
+            expected = Number.class;
+        } else if (columnClass == LocalDate.class) {
+            kind = DATE;
+            expected = LocalDate.class;
+        } else if (columnClass != String.class && columnClass != Object.class
+                && Comparable.class.isAssignableFrom(columnClass)) {
+            kind = COMPARABLE;
+            expected = columnClass;
+        } else {
+            return COLLATED;
+        }
+        for (Object value : values) {
+            if (value != null && !expected.isInstance(value)) return COLLATED;
+        }
+        return kind;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte;
+    }
+}